@@ -0,0 +1,90 @@
+package chap02.item01;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 아이템 1 : 행마다 EnumSet 을 검사하는 필터와 EnumBitmapIndex 의 AND / ANDNOT 질의 비교
+ *
+ * "A 이고 C 가 아닌 행" 의 수를 센다. C 는 드물게 켜지므로 compact() 후에는 run-length 비트맵이 된다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EnumBitmapIndexBenchmark {
+
+    private enum Tag {
+        A, B, C, D
+    }
+
+    @Param({"1000000"})
+    private int rows;
+
+    private List<EnumSet<Tag>> tags;
+    private EnumBitmapIndex<Tag> dense;
+    private EnumBitmapIndex<Tag> compacted;
+    private final EnumSet<Tag> with = EnumSet.of(Tag.A);
+    private final EnumSet<Tag> without = EnumSet.of(Tag.C);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        tags = new ArrayList<>(rows);
+        dense = EnumBitmapIndex.noneOf(Tag.class);
+        compacted = EnumBitmapIndex.noneOf(Tag.class);
+        for (int i = 0; i < rows; i++) {
+            EnumSet<Tag> row = EnumSet.noneOf(Tag.class);
+            if (random.nextBoolean()) {
+                row.add(Tag.A);
+            }
+            if ((i / 10_000) % 2 == 0) {
+                row.add(Tag.B);
+            }
+            if (random.nextInt(1_000) == 0) {
+                row.add(Tag.C);
+            }
+            tags.add(row);
+            dense.add(row);
+            compacted.add(row);
+        }
+        compacted.compact();
+    }
+
+    @Benchmark
+    public int filterEnumSets() {
+        int count = 0;
+        for (EnumSet<Tag> row : tags) {
+            if (row.containsAll(with) && !row.contains(Tag.C)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int denseBitmaps() {
+        return dense.count(with, without);
+    }
+
+    @Benchmark
+    public int compactedBitmaps() {
+        return compacted.count(with, without);
+    }
+}
@@ -0,0 +1,96 @@
+package chap02.item02;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 아이템 2 : 점층적 생성자, 자바빈즈, 빌더 패턴의 객체 생성 비용 비교
+ *
+ * 입력값을 상태 필드에서 읽어 상수 폴딩을 막고, 만든 객체를 반환해 죽은 코드 제거를 막는다.
+ * 레코드 한 건당 할당량은 -PjmhProfilers=gc 로 실행해 gc.alloc.rate.norm 값으로 비교한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NutritionFactsBenchmark {
+
+    private int servingSize = 240;
+    private int servings = 8;
+    private int calories = 100;
+    private int fat = 0;
+    private int sodium = 35;
+    private int carbohydrate = 27;
+
+    private final NutritionFactsOfBuilder.Builder reusable = new NutritionFactsOfBuilder.Builder(0, 0);
+    private final NutritionFactsOfJavaBeans pooled = new NutritionFactsOfJavaBeans();
+
+    @Benchmark
+    public NutritionFactsOfTelescopingConstructor telescopingConstructor() {
+        return new NutritionFactsOfTelescopingConstructor(servingSize, servings, calories, fat, sodium,
+            carbohydrate);
+    }
+
+    @Benchmark
+    public NutritionFactsOfJavaBeans javaBeans() {
+        NutritionFactsOfJavaBeans nutritionFacts = new NutritionFactsOfJavaBeans();
+        nutritionFacts.setServingSize(servingSize);
+        nutritionFacts.setServings(servings);
+        nutritionFacts.setCalories(calories);
+        nutritionFacts.setFat(fat);
+        nutritionFacts.setSodium(sodium);
+        nutritionFacts.setCarbohydrate(carbohydrate);
+        return nutritionFacts;
+    }
+
+    @Benchmark
+    public NutritionFactsOfBuilder builder() {
+        return new NutritionFactsOfBuilder
+            .Builder(servingSize, servings)
+            .calories(calories)
+            .fat(fat)
+            .sodium(sodium)
+            .carbohydrate(carbohydrate)
+            .build();
+    }
+
+    @Benchmark
+    public NutritionFactsOfBuilder reusableBuilder() {
+        return reusable.reset(servingSize, servings)
+            .calories(calories)
+            .fat(fat)
+            .sodium(sodium)
+            .carbohydrate(carbohydrate)
+            .build();
+    }
+
+    @Benchmark
+    public NutritionFactsOfBuilder threadLocalBuilder() {
+        return NutritionFactsOfBuilder.Builder.threadLocal(servingSize, servings)
+            .calories(calories)
+            .fat(fat)
+            .sodium(sodium)
+            .carbohydrate(carbohydrate)
+            .build();
+    }
+
+    @Benchmark
+    public NutritionFactsOfJavaBeans buildIntoPooled() {
+        return reusable.reset(servingSize, servings)
+            .calories(calories)
+            .fat(fat)
+            .sodium(sodium)
+            .carbohydrate(carbohydrate)
+            .buildInto(pooled);
+    }
+}
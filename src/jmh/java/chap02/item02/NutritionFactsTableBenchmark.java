@@ -0,0 +1,83 @@
+package chap02.item02;
+
+import chap02.item02.NutritionFactsTable.Column;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 아이템 2 : List<NutritionFactsOfBuilder> 와 NutritionFactsTable 의 집계 비용 비교
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NutritionFactsTableBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    private List<NutritionFactsOfBuilder> list;
+    private NutritionFactsTable table;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(2);
+        list = new ArrayList<>(size);
+        table = new NutritionFactsTable(size);
+        for (int i = 0; i < size; i++) {
+            NutritionFactsOfBuilder.Builder builder = new NutritionFactsOfBuilder.Builder(
+                random.nextInt(500) + 1, random.nextInt(10) + 1)
+                .calories(random.nextInt(1000))
+                .fat(random.nextInt(100))
+                .sodium(random.nextInt(2000))
+                .carbohydrate(random.nextInt(300));
+            list.add(builder.build());
+            table.append(builder);
+        }
+    }
+
+    @Benchmark
+    public long sumCaloriesList() {
+        long sum = 0;
+        for (NutritionFactsOfBuilder facts : list) {
+            sum += facts.getCalories();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumCaloriesTable() {
+        return table.sum(Column.CALORIES);
+    }
+
+    @Benchmark
+    public long sumCaloriesOfLowSodiumList() {
+        long sum = 0;
+        for (NutritionFactsOfBuilder facts : list) {
+            if (facts.getSodium() <= 500) {
+                sum += facts.getCalories();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumCaloriesOfLowSodiumTable() {
+        return table.sum(Column.CALORIES, table.filterRange(Column.SODIUM, Integer.MIN_VALUE, 500));
+    }
+}
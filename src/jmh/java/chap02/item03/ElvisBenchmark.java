@@ -0,0 +1,54 @@
+package chap02.item03;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 아이템 3 : 싱글턴 구현 방식별 인스턴스 획득 비용 비교
+ *
+ * public static final 필드, 정적 팩터리, 공급자(Supplier), 열거 타입 방식 모두 인라인되면 비용이 거의 같아야 한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ElvisBenchmark {
+
+    private final Supplier<Elvis> supplier = ElvisObjectByFactory.get();
+
+    @Benchmark
+    public Elvis privateStatic() {
+        return ElvisObjectByPrivateStatic.INSTANCE;
+    }
+
+    @Benchmark
+    public Elvis factoryMethod() {
+        return ElvisObjectByFactory.getInstance();
+    }
+
+    @Benchmark
+    public Elvis supplier() {
+        return supplier.get();
+    }
+
+    @Benchmark
+    public Elvis serializable() {
+        return SerializableElvisObject.getInstance();
+    }
+
+    @Benchmark
+    public ElvisObjectByEnum enumType() {
+        return ElvisObjectByEnum.INSTANCE;
+    }
+}
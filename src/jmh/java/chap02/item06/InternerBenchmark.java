@@ -0,0 +1,75 @@
+package chap02.item06;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 아이템 6 : String.intern() 과 Interner 의 strong, weak 모드 비교
+ *
+ * distinct 개의 서로 다른 이름이 반복되는 입력을 매번 new String 으로 만들어 인터닝한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InternerBenchmark {
+
+    private static final int INPUT_SIZE = 1 << 16;
+
+    @Param({"1000", "100000"})
+    private int distinct;
+
+    private char[][] inputs;
+    private int index;
+    private Interner<String> strong;
+    private Interner<String> weak;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(6);
+        inputs = new char[INPUT_SIZE][];
+        for (int i = 0; i < INPUT_SIZE; i++) {
+            inputs[i] = ("member-" + random.nextInt(distinct)).toCharArray();
+        }
+        strong = Interner.strong();
+        weak = Interner.weak();
+    }
+
+    private String next() {
+        index = (index + 1) & (INPUT_SIZE - 1);
+        return new String(inputs[index]);
+    }
+
+    @Benchmark
+    public String noIntern() {
+        return next();
+    }
+
+    @Benchmark
+    public String stringIntern() {
+        return next().intern();
+    }
+
+    @Benchmark
+    public String strongInterner() {
+        return strong.intern(next());
+    }
+
+    @Benchmark
+    public String weakInterner() {
+        return weak.intern(next());
+    }
+}
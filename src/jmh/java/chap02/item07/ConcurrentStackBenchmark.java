@@ -0,0 +1,135 @@
+package chap02.item07;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 아이템 7 : 여러 스레드가 하나의 스택을 공유할 때의 push + pop 처리량 비교
+ *
+ * - synchronized : Item07Test.Stack 을 synchronized 메서드로 감싼 스택
+ * - treiber      : elimination 을 끈 ConcurrentStack
+ * - elimination  : elimination backoff 를 켠 ConcurrentStack
+ * - striped      : StripedConcurrentStack
+ *
+ * ./gradlew jmh 로 실행하면 @Threads 의 스레드 수로만 측정한다.
+ * 1 ~ 64 스레드 전체를 측정하려면 main 메서드를 실행한다. 스레드 수마다 JSON 결과 파일이 남는다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ConcurrentStackBenchmark {
+
+    @Param({"synchronized", "treiber", "elimination", "striped"})
+    private String implementation;
+
+    private SharedStack stack;
+
+    interface SharedStack {
+        void push(Object o);
+
+        Object pop();
+    }
+
+    @Setup
+    public void setUp() {
+        switch (implementation) {
+            case "synchronized":
+                Item07Test.Stack delegate = new Item07Test().new Stack();
+                stack = new SharedStack() {
+                    @Override
+                    public synchronized void push(Object o) {
+                        delegate.push(o);
+                    }
+
+                    @Override
+                    public synchronized Object pop() {
+                        return delegate.pop();
+                    }
+                };
+                break;
+            case "treiber":
+                stack = adapt(new ConcurrentStack<>(0));
+                break;
+            case "elimination":
+                stack = adapt(new ConcurrentStack<>());
+                break;
+            case "striped":
+                StripedConcurrentStack<Object> striped = new StripedConcurrentStack<>();
+                stack = new SharedStack() {
+                    @Override
+                    public void push(Object o) {
+                        striped.push(o);
+                    }
+
+                    @Override
+                    public Object pop() {
+                        return striped.pop();
+                    }
+                };
+                break;
+            default:
+                throw new IllegalArgumentException(implementation);
+        }
+    }
+
+    private static SharedStack adapt(ConcurrentStack<Object> concurrentStack) {
+        return new SharedStack() {
+            @Override
+            public void push(Object o) {
+                concurrentStack.push(o);
+            }
+
+            @Override
+            public Object pop() {
+                return concurrentStack.pop();
+            }
+        };
+    }
+
+    /*
+    각 스레드가 자신이 넣은 다음에만 꺼내므로 스택이 비어 있는 상태에서 pop 하는 일은 없다.
+     */
+    @Benchmark
+    public Object pushThenPop() {
+        stack.push(this);
+        return stack.pop();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // JMH 는 결과 파일의 디렉터리를 만들어 주지 않는다.
+        File resultDir = new File("build/reports/jmh");
+        if (!resultDir.isDirectory() && !resultDir.mkdirs()) {
+            throw new IllegalStateException("cannot create " + resultDir);
+        }
+        for (int threads = 1; threads <= 64; threads <<= 1) {
+            Options options = new OptionsBuilder()
+                .include(ConcurrentStackBenchmark.class.getSimpleName())
+                .threads(threads)
+                .resultFormat(ResultFormatType.JSON)
+                .result(new File(resultDir, "concurrent-stack-" + threads + "-threads.json").getPath())
+                .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package chap02.item07;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 아이템 7 : Item07Test.Stack 의 push / pop 비용
+ *
+ * 매 호출마다 새 스택에 SIZE 개를 넣고 모두 꺼내므로 ensureCapacity 의 배열 확장 비용까지 포함된다.
+ * Integer 를 넣는 ObjectStack 과 IntStack 을 비교하면 오토박싱 비용을 볼 수 있다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StackBenchmark {
+
+    private static final int SIZE = 1024;
+
+    @Param({"16", "1024"})
+    private int depth;
+
+    private final Item07Test outer = new Item07Test();
+    private final Object element = new Object();
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void pushThenPop(Blackhole blackhole) {
+        Item07Test.Stack stack = outer.new Stack();
+        for (int i = 0; i < SIZE; i += depth) {
+            for (int j = 0; j < depth; j++) {
+                stack.push(element);
+            }
+            for (int j = 0; j < depth; j++) {
+                blackhole.consume(stack.pop());
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void objectStackPushThenPop(Blackhole blackhole) {
+        ObjectStack<Object> stack = new ObjectStack<>();
+        for (int i = 0; i < SIZE; i += depth) {
+            for (int j = 0; j < depth; j++) {
+                stack.push(element);
+            }
+            for (int j = 0; j < depth; j++) {
+                blackhole.consume(stack.pop());
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void boxedIntegerPushThenPop(Blackhole blackhole) {
+        ObjectStack<Integer> stack = new ObjectStack<>();
+        for (int i = 0; i < SIZE; i += depth) {
+            for (int j = 0; j < depth; j++) {
+                stack.push(i + j);
+            }
+            for (int j = 0; j < depth; j++) {
+                blackhole.consume(stack.pop().intValue());
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void intStackPushThenPop(Blackhole blackhole) {
+        IntStack stack = new IntStack();
+        for (int i = 0; i < SIZE; i += depth) {
+            for (int j = 0; j < depth; j++) {
+                stack.push(i + j);
+            }
+            for (int j = 0; j < depth; j++) {
+                blackhole.consume(stack.pop());
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package chap02.item09;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 아이템 9 : 스트림 복사와 FileCopier 의 처리량 비교 (1 MB ~ 4 GB)
+ *
+ * 원본 파일은 Trial 마다 한 번 만들고, 각 호출은 같은 대상 파일을 덮어쓴다.
+ * 큰 파일은 디스크와 페이지 캐시 상태의 영향을 크게 받으므로 -PjmhInclude=FileCopy 로 따로 실행하는 것이 좋다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileCopyBenchmark {
+
+    @Param({"1048576", "67108864", "1073741824", "4294967296"})
+    private long size;
+
+    private Path directory;
+    private Path source;
+    private Path target;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("file-copy-benchmark");
+        source = directory.resolve("source");
+        target = directory.resolve("target");
+
+        byte[] block = new byte[1 << 20];
+        new Random(9).nextBytes(block);
+        try (FileChannel out = FileChannel.open(source, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            for (long written = 0; written < size; ) {
+                ByteBuffer buffer = ByteBuffer.wrap(block, 0, (int) Math.min(block.length, size - written));
+                while (buffer.hasRemaining()) {
+                    written += out.write(buffer);
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(source);
+        Files.deleteIfExists(target);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public long stream() throws IOException {
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = Files.newOutputStream(target)) {
+            byte[] buffer = new byte[8192];
+            long copied = 0;
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+                copied += read;
+            }
+            return copied;
+        }
+    }
+
+    @Benchmark
+    public long filesCopy() throws IOException {
+        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        return size;
+    }
+
+    @Benchmark
+    public long directBuffer() throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                 StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return FileCopier.copyWithBuffer(in, out, 0, in.size(), (copied, total) -> {
+            });
+        }
+    }
+
+    @Benchmark
+    public long transferTo() throws IOException {
+        return FileCopier.copy(source, target);
+    }
+}
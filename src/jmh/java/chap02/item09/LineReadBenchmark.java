@@ -0,0 +1,91 @@
+package chap02.item09;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 아이템 9 : BufferedReader.readLine 과 LineCursor 의 줄 읽기 비용 비교
+ *
+ * 두 방식 모두 각 줄의 모든 문자를 한 번씩 읽어 합계를 반환한다.
+ * asciiRatio 는 ASCII 로만 이루어진 줄의 비율(%)이며, 나머지 줄에는 한글이 섞인다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LineReadBenchmark {
+
+    private static final int LINES = 500_000;
+
+    @Param({"100", "50"})
+    private int asciiRatio;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("line-read-benchmark", ".txt");
+        Random random = new Random(9);
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < LINES; i++) {
+                writer.write(random.nextInt(100) < asciiRatio ? "member-" : "회원-");
+                writer.write(Integer.toString(random.nextInt()));
+                writer.write(",010-123-4567,2019-06-01\n");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long bufferedReader() throws IOException {
+        long sum = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                for (int i = 0; i < line.length(); i++) {
+                    sum += line.charAt(i);
+                }
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long lineCursor() throws IOException {
+        long sum = 0;
+        try (LineCursor cursor = LineCursor.open(file, StandardCharsets.UTF_8)) {
+            while (cursor.next()) {
+                CharSequence line = cursor.line();
+                for (int i = 0; i < line.length(); i++) {
+                    sum += line.charAt(i);
+                }
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,126 @@
+package chap03.item11;
+
+import chap03.item11.Item11Test.ExtendedPhoneNumber;
+import chap03.item12.PackedPhoneNumber;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 아이템 11 : HashMap 과 PhoneNumberMap 의 조회, 적재 비용 비교
+ *
+ * 조회 벤치마크는 매번 새 키 객체를 만들어 찾는 실제 사용 패턴을 따른다. (PhoneNumberMap 은 long 그대로 조회)
+ * 적재 벤치마크의 op 당 할당량은 -PjmhProfilers=gc 로 확인한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PhoneNumberMapBenchmark {
+
+    private static final int LOOKUPS = 1024;
+
+    @Param({"1000", "1000000"})
+    private int size;
+
+    private int[][] parts;
+    private long[] packed;
+    private int[] lookupOrder;
+
+    private HashMap<ExtendedPhoneNumber, String> extendedMap;
+    private HashMap<PackedPhoneNumber, String> packedHashMap;
+    private PhoneNumberMap<String> phoneNumberMap;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(11);
+        parts = new int[size][];
+        packed = new long[size];
+        extendedMap = new HashMap<>();
+        packedHashMap = new HashMap<>();
+        phoneNumberMap = new PhoneNumberMap<>(size);
+        for (int i = 0; i < size; i++) {
+            int[] p = {random.nextInt(1000), random.nextInt(1000), random.nextInt(10000)};
+            parts[i] = p;
+            packed[i] = PackedPhoneNumber.of(p[0], p[1], p[2]).toPackedLong();
+            extendedMap.put(new ExtendedPhoneNumber(p[0], p[1], p[2]), "subscriber");
+            packedHashMap.put(PackedPhoneNumber.of(p[0], p[1], p[2]), "subscriber");
+            phoneNumberMap.put(packed[i], "subscriber");
+        }
+
+        lookupOrder = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookupOrder[i] = random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int getExtendedPhoneNumberHashMap() {
+        int found = 0;
+        for (int i : lookupOrder) {
+            int[] p = parts[i];
+            if (extendedMap.get(new ExtendedPhoneNumber(p[0], p[1], p[2])) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int getPackedPhoneNumberHashMap() {
+        int found = 0;
+        for (int i : lookupOrder) {
+            int[] p = parts[i];
+            if (packedHashMap.get(PackedPhoneNumber.of(p[0], p[1], p[2])) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int getPhoneNumberMap() {
+        int found = 0;
+        for (int i : lookupOrder) {
+            if (phoneNumberMap.get(packed[i]) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public HashMap<PackedPhoneNumber, String> putAllPackedPhoneNumberHashMap() {
+        HashMap<PackedPhoneNumber, String> map = new HashMap<>();
+        for (long key : packed) {
+            map.put(PackedPhoneNumber.fromPackedLong(key), "subscriber");
+        }
+        return map;
+    }
+
+    @Benchmark
+    public PhoneNumberMap<String> putAllPhoneNumberMap() {
+        PhoneNumberMap<String> map = new PhoneNumberMap<>();
+        for (long key : packed) {
+            map.put(key, "subscriber");
+        }
+        return map;
+    }
+}
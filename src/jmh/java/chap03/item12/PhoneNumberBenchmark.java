@@ -0,0 +1,102 @@
+package chap03.item12;
+
+import chap03.item12.Item12Test.PhoneNumber;
+import java.nio.charset.StandardCharsets;
+import java.util.UnknownFormatConversionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 아이템 12 : PhoneNumber 의 parse / toString / hashCode 비용
+ *
+ * parseRegex 는 정규식 + split + parseInt + 빌더로 파싱하던 이전 구현으로, PhoneNumberParser 와 비교하는 기준선이다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PhoneNumberBenchmark {
+
+    private String text = "707-867-5309";
+    private char[] chars = text.toCharArray();
+    private byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+    private PhoneNumber phoneNumber = new PhoneNumber(707, 867, 5309);
+    private PackedPhoneNumber packedPhoneNumber = PackedPhoneNumber.of(707, 867, 5309);
+
+    private static final Pattern phoneNumberPattern = Pattern.compile("^\\d{3}-\\d{3}-\\d{4}$");
+
+    @Benchmark
+    public PhoneNumber parseRegex() {
+        if (!phoneNumberPattern.matcher(text).find()) {
+            throw new UnknownFormatConversionException(text + " cannot be parsed");
+        }
+
+        String[] numbers = text.split("-");
+        return PhoneNumber.builder()
+            .areaCode(Integer.parseInt(numbers[0]))
+            .prefix(Integer.parseInt(numbers[1]))
+            .lineNum(Integer.parseInt(numbers[2]))
+            .build();
+    }
+
+    @Benchmark
+    public PhoneNumber parse() {
+        return PhoneNumber.parse(text);
+    }
+
+    @Benchmark
+    public long parsePackedCharSequence() {
+        return PhoneNumberParser.parse(text);
+    }
+
+    @Benchmark
+    public long parsePackedChars() {
+        return PhoneNumberParser.parse(chars, 0, chars.length);
+    }
+
+    @Benchmark
+    public long parsePackedBytes() {
+        return PhoneNumberParser.parse(bytes, 0, bytes.length);
+    }
+
+    @Benchmark
+    public String toStringFormat() {
+        return phoneNumber.toString();
+    }
+
+    @Benchmark
+    public int hashCodeCompute() {
+        return phoneNumber.hashCode();
+    }
+
+    @Benchmark
+    public String packedToString() {
+        return packedPhoneNumber.toString();
+    }
+
+    @Benchmark
+    public int packedHashCode() {
+        return packedPhoneNumber.hashCode();
+    }
+
+    @Benchmark
+    public PhoneNumber newInstance() {
+        return new PhoneNumber(707, 867, 5309);
+    }
+
+    @Benchmark
+    public PhoneNumber valueOfCached() {
+        return PhoneNumber.valueOf(707, 867, 5309);
+    }
+}
@@ -0,0 +1,113 @@
+package chap03.item14;
+
+import chap03.item14.Item14Test.ComparatorConstructor;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 아이템 14 : 비교자 생성 메서드로 만든 COMPARATOR 의 비교 및 정렬 비용
+ *
+ * height 가 자주 겹치도록 값의 범위를 좁혀 thenComparingDouble, thenComparingInt 까지 실행되게 한다.
+ * ComparatorBuilder 로 펼친 비교자(compiled)와 키를 한 번만 뽑는 정렬(primitiveKeys)을 함께 잰다.
+ * sortRadix 는 같은 키를 unsigned long 으로 바꿔 기수 정렬한다.
+ * smallest100, select 는 전체 정렬 대신 작은 100 개 / 중앙값만 구하는 비용이다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ComparatorConstructorBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private ComparatorConstructor[] source;
+    private ComparatorConstructor left;
+    private ComparatorConstructor right;
+    private ComparatorBuilder<ComparatorConstructor> builder;
+    private Comparator<ComparatorConstructor> compiled;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(14);
+        source = new ComparatorConstructor[size];
+        for (int i = 0; i < size; i++) {
+            source[i] = new ComparatorConstructor(random.nextInt(100), random.nextInt(50) / 2.0,
+                random.nextInt(80));
+        }
+        left = new ComparatorConstructor(170, 65.5, 30);
+        right = new ComparatorConstructor(170, 65.5, 31);
+        builder = ComparatorBuilder.comparingLong(ComparatorConstructor::getHeight)
+            .thenComparingDouble(ComparatorConstructor::getWeight)
+            .thenComparingInt(ComparatorConstructor::getAge);
+        compiled = builder.build();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int compareTo() {
+        return left.compareTo(right);
+    }
+
+    @Benchmark
+    public ComparatorConstructor[] sort() {
+        ComparatorConstructor[] copy = Arrays.copyOf(source, source.length);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int compareCompiled() {
+        return compiled.compare(left, right);
+    }
+
+    @Benchmark
+    public ComparatorConstructor[] sortCompiled() {
+        ComparatorConstructor[] copy = Arrays.copyOf(source, source.length);
+        Arrays.sort(copy, compiled);
+        return copy;
+    }
+
+    @Benchmark
+    public ComparatorConstructor[] sortPrimitiveKeys() {
+        ComparatorConstructor[] copy = Arrays.copyOf(source, source.length);
+        builder.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public ComparatorConstructor[] sortRadix() {
+        ComparatorConstructor[] copy = Arrays.copyOf(source, source.length);
+        RadixSort.sort(copy, builder);
+        return copy;
+    }
+
+    @Benchmark
+    public List<ComparatorConstructor> smallest100() {
+        return TopK.smallest(source, 100);
+    }
+
+    @Benchmark
+    public ComparatorConstructor select() {
+        ComparatorConstructor[] copy = Arrays.copyOf(source, source.length);
+        TopK.select(copy, copy.length / 2);
+        return copy[copy.length / 2];
+    }
+}
@@ -0,0 +1,359 @@
+package chap02.item01;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/*
+열거 타입 값으로 태그를 단 레코드(행)를 위한 비트맵 인덱스.
+
+EnumSet 이 열거 타입 원소들을 long 하나의 비트로 다루는 것처럼, 여기서는 열거 상수마다 행 수만큼의 비트맵을 둔다.
+"Person.A 이고 Person.C 가 아닌 행" 은 A 비트맵 AND (NOT C 비트맵) 이고, long 단위로 64 행씩 한 번에 계산한다.
+
+EnumBitmapIndex<Person> index = EnumBitmapIndex.noneOf(Person.class);
+index.add(EnumSet.of(Person.A, Person.B));
+int[] rows = index.query(EnumSet.of(Person.A), EnumSet.of(Person.C));
+
+- 행은 add 한 순서대로 0 부터 번호가 붙는다.
+- 처음에는 모든 비트맵이 long[] 이다. compact() 를 부르면 켜진 비트가 드문 (또는 길게 이어진) 비트맵은
+  켜진 구간 [start, end) 목록(run-length)으로 바꾼다. 압축된 비트맵도 구간 단위로 AND / ANDNOT 한다.
+- 스레드 안전하지 않다.
+ */
+public final class EnumBitmapIndex<E extends Enum<E>> {
+
+    private final Class<E> type;
+    private final Bitmap[] bitmaps;
+    private int size;
+
+    private EnumBitmapIndex(Class<E> type) {
+        this.type = type;
+        this.bitmaps = new Bitmap[type.getEnumConstants().length];
+        for (int i = 0; i < bitmaps.length; i++) {
+            bitmaps[i] = new DenseBitmap();
+        }
+    }
+
+    public static <E extends Enum<E>> EnumBitmapIndex<E> noneOf(Class<E> type) {
+        return new EnumBitmapIndex<>(Objects.requireNonNull(type));
+    }
+
+    /*
+    tags 를 단 행을 추가하고 행 번호를 돌려준다.
+     */
+    public int add(Set<E> tags) {
+        int row = size;
+        for (E tag : tags) {
+            bitmaps[tag.ordinal()] = bitmaps[tag.ordinal()].append(row);
+        }
+        size++;
+        return row;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public EnumSet<E> get(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row: " + row + ", size: " + size);
+        }
+        EnumSet<E> tags = EnumSet.noneOf(type);
+        for (E constant : type.getEnumConstants()) {
+            if (bitmaps[constant.ordinal()].contains(row)) {
+                tags.add(constant);
+            }
+        }
+        return tags;
+    }
+
+    /*
+    with 의 태그를 모두 갖고 without 의 태그는 하나도 갖지 않는 행 번호들 (오름차순)
+     */
+    public int[] query(Set<E> with, Set<E> without) {
+        long[] words = match(with, without);
+        int[] rows = new int[cardinality(words)];
+        int i = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                rows[i++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return rows;
+    }
+
+    public int[] query(Set<E> with) {
+        return query(with, EnumSet.noneOf(type));
+    }
+
+    public int count(Set<E> with, Set<E> without) {
+        return cardinality(match(with, without));
+    }
+
+    public void forEach(Set<E> with, Set<E> without, IntConsumer action) {
+        for (int row : query(with, without)) {
+            action.accept(row);
+        }
+    }
+
+    /*
+    비트맵마다 long[] 과 run-length 중 더 작은 쪽으로 바꾼다.
+     */
+    public void compact() {
+        for (int i = 0; i < bitmaps.length; i++) {
+            bitmaps[i] = bitmaps[i].compact();
+        }
+    }
+
+    boolean isRunLength(E tag) {
+        return bitmaps[tag.ordinal()] instanceof RunLengthBitmap;
+    }
+
+    long[] match(Set<E> with, Set<E> without) {
+        int wordCount = (size + 63) >>> 6;
+        long[] words = new long[wordCount];
+        Arrays.fill(words, -1L);
+        if ((size & 63) != 0) {
+            words[wordCount - 1] = (1L << size) - 1;
+        }
+        for (E tag : with) {
+            bitmaps[tag.ordinal()].andInto(words);
+        }
+        for (E tag : without) {
+            bitmaps[tag.ordinal()].andNotInto(words);
+        }
+        return words;
+    }
+
+    private static int cardinality(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /*
+    words 의 [from, to) 비트를 끈다. 양 끝 word 만 마스크로 다루고 가운데는 word 단위로 지운다.
+     */
+    private static void clearRange(long[] words, int from, int to) {
+        to = Math.min(to, words.length << 6);
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] &= ~(firstMask & lastMask);
+            return;
+        }
+        words[first] &= ~firstMask;
+        Arrays.fill(words, first + 1, last, 0L);
+        words[last] &= ~lastMask;
+    }
+
+    private abstract static class Bitmap {
+
+        /*
+        row 를 켠다. row 는 지금까지 켠 어떤 행보다 커야 한다. 표현을 바꿔야 하면 새 Bitmap 을 돌려준다.
+         */
+        abstract Bitmap append(int row);
+
+        abstract boolean contains(int row);
+
+        abstract void andInto(long[] words);
+
+        abstract void andNotInto(long[] words);
+
+        abstract Bitmap compact();
+    }
+
+    private static final class DenseBitmap extends Bitmap {
+
+        private long[] words;
+
+        DenseBitmap() {
+            this(new long[4]);
+        }
+
+        DenseBitmap(long[] words) {
+            this.words = words;
+        }
+
+        @Override
+        Bitmap append(int row) {
+            int w = row >>> 6;
+            if (w >= words.length) {
+                words = Arrays.copyOf(words, Math.max(w + 1, words.length + (words.length >> 1)));
+            }
+            words[w] |= 1L << row;
+            return this;
+        }
+
+        @Override
+        boolean contains(int row) {
+            int w = row >>> 6;
+            return w < words.length && (words[w] & (1L << row)) != 0;
+        }
+
+        @Override
+        void andInto(long[] target) {
+            int common = Math.min(words.length, target.length);
+            for (int i = 0; i < common; i++) {
+                target[i] &= words[i];
+            }
+            Arrays.fill(target, common, target.length, 0L);
+        }
+
+        @Override
+        void andNotInto(long[] target) {
+            int common = Math.min(words.length, target.length);
+            for (int i = 0; i < common; i++) {
+                target[i] &= ~words[i];
+            }
+        }
+
+        @Override
+        Bitmap compact() {
+            RunLengthBitmap runs = RunLengthBitmap.of(words);
+            int usedWords = words.length;
+            while (usedWords > 0 && words[usedWords - 1] == 0) {
+                usedWords--;
+            }
+            if (runs.runCount() < usedWords) {
+                return runs;
+            }
+            words = Arrays.copyOf(words, usedWords);
+            return this;
+        }
+    }
+
+    /*
+    켜진 구간 [starts[i], ends[i]) 의 목록. 구간 하나에 int 두 개 (long 하나 크기) 를 쓴다.
+     */
+    private static final class RunLengthBitmap extends Bitmap {
+
+        private int[] starts;
+        private int[] ends;
+        private int runs;
+
+        private RunLengthBitmap(int[] starts, int[] ends, int runs) {
+            this.starts = starts;
+            this.ends = ends;
+            this.runs = runs;
+        }
+
+        static RunLengthBitmap of(long[] words) {
+            int[] starts = new int[8];
+            int[] ends = new int[8];
+            int runs = 0;
+            int bits = words.length << 6;
+            int position = nextSetBit(words, 0);
+            while (position >= 0) {
+                int end = nextClearBit(words, position);
+                if (runs == starts.length) {
+                    starts = Arrays.copyOf(starts, runs * 2);
+                    ends = Arrays.copyOf(ends, runs * 2);
+                }
+                starts[runs] = position;
+                ends[runs] = end;
+                runs++;
+                position = end < bits ? nextSetBit(words, end) : -1;
+            }
+            return new RunLengthBitmap(Arrays.copyOf(starts, Math.max(1, runs)), Arrays.copyOf(ends, Math.max(1, runs)),
+                runs);
+        }
+
+        private static int nextSetBit(long[] words, int from) {
+            int w = from >>> 6;
+            if (w >= words.length) {
+                return -1;
+            }
+            long word = words[w] & (-1L << from);
+            while (word == 0) {
+                if (++w == words.length) {
+                    return -1;
+                }
+                word = words[w];
+            }
+            return (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+
+        private static int nextClearBit(long[] words, int from) {
+            int w = from >>> 6;
+            long word = ~words[w] & (-1L << from);
+            while (word == 0) {
+                if (++w == words.length) {
+                    return words.length << 6;
+                }
+                word = ~words[w];
+            }
+            return (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+
+        int runCount() {
+            return runs;
+        }
+
+        @Override
+        Bitmap append(int row) {
+            if (runs > 0 && ends[runs - 1] == row) {
+                ends[runs - 1]++;
+                return this;
+            }
+            if (runs == starts.length) {
+                starts = Arrays.copyOf(starts, runs * 2);
+                ends = Arrays.copyOf(ends, runs * 2);
+            }
+            starts[runs] = row;
+            ends[runs] = row + 1;
+            runs++;
+            return this;
+        }
+
+        @Override
+        boolean contains(int row) {
+            int i = Arrays.binarySearch(starts, 0, runs, row);
+            if (i >= 0) {
+                return true;
+            }
+            int run = -i - 2;
+            return run >= 0 && row < ends[run];
+        }
+
+        @Override
+        void andInto(long[] words) {
+            int clearFrom = 0;
+            for (int i = 0; i < runs; i++) {
+                clearRange(words, clearFrom, starts[i]);
+                clearFrom = ends[i];
+            }
+            clearRange(words, clearFrom, words.length << 6);
+        }
+
+        @Override
+        void andNotInto(long[] words) {
+            for (int i = 0; i < runs; i++) {
+                clearRange(words, starts[i], ends[i]);
+            }
+        }
+
+        @Override
+        Bitmap compact() {
+            long[] words = new long[runs == 0 ? 0 : (ends[runs - 1] + 63) >>> 6];
+            if (words.length <= runs) {
+                Arrays.fill(words, -1L);
+                andInto(words);
+                return new DenseBitmap(words);
+            }
+            starts = Arrays.copyOf(starts, Math.max(1, runs));
+            ends = Arrays.copyOf(ends, Math.max(1, runs));
+            return this;
+        }
+    }
+}
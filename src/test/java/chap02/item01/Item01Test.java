@@ -7,7 +7,10 @@ import org.junit.Test;
 import java.math.BigInteger;
 import java.time.Instant;
 import java.util.Date;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -63,6 +66,65 @@ public class Item01Test {
         // List<Person> persons = Collections.list(enumerationElements);
     }
 
+    @Test
+    @TestDescription("EnumSet 처럼 열거 상수마다 비트맵을 두고 AND / ANDNOT 으로 행을 고른다.")
+    public void enumBitmapIndex() {
+        EnumBitmapIndex<Person> index = EnumBitmapIndex.noneOf(Person.class);
+        List<EnumSet<Person>> rows = new ArrayList<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            EnumSet<Person> tags = EnumSet.noneOf(Person.class);
+            if (random.nextInt(2) == 0) {
+                tags.add(Person.A);
+            }
+            // B 는 긴 구간으로만 켜지고, C 는 아주 드물게 켜진다.
+            if ((i / 5_000) % 3 == 0) {
+                tags.add(Person.B);
+            }
+            if (random.nextInt(1_000) == 0) {
+                tags.add(Person.C);
+            }
+            rows.add(tags);
+            assertThat(index.add(tags)).isEqualTo(i);
+        }
+
+        int[] before = index.query(EnumSet.of(Person.A), EnumSet.of(Person.C));
+        index.compact();
+
+        assertTrue(index.isRunLength(Person.B));
+        assertTrue(index.isRunLength(Person.C));
+        assertFalse(index.isRunLength(Person.A));
+        assertThat(index.query(EnumSet.of(Person.A), EnumSet.of(Person.C))).isEqualTo(before);
+
+        // 압축한 뒤에도 행을 추가할 수 있다.
+        rows.add(EnumSet.allOf(Person.class));
+        index.add(EnumSet.allOf(Person.class));
+
+        List<Set<Person>> withs = new ArrayList<>();
+        withs.add(EnumSet.noneOf(Person.class));
+        withs.add(EnumSet.of(Person.A));
+        withs.add(EnumSet.of(Person.B, Person.C));
+        withs.add(EnumSet.allOf(Person.class));
+        for (Set<Person> with : withs) {
+            for (Set<Person> without : withs) {
+                List<Integer> expected = new ArrayList<>();
+                for (int row = 0; row < rows.size(); row++) {
+                    EnumSet<Person> tags = rows.get(row);
+                    if (tags.containsAll(with) && without.stream().noneMatch(tags::contains)) {
+                        expected.add(row);
+                    }
+                }
+                int[] actual = index.query(with, without);
+                assertThat(actual.length).isEqualTo(expected.size());
+                for (int i = 0; i < actual.length; i++) {
+                    assertThat(actual[i]).isEqualTo(expected.get(i));
+                }
+            }
+        }
+        assertThat(index.get(100_000)).isEqualTo(EnumSet.allOf(Person.class));
+        assertThat(index.get(0)).isEqualTo(rows.get(0));
+    }
+
     @AllArgsConstructor
     private enum Person {
         A, B, C
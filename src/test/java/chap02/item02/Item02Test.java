@@ -1,8 +1,12 @@
 package chap02.item02;
 
+import chap02.item02.NutritionFactsTable.Column;
 import common.TestDescription;
+import java.util.stream.Stream;
 import org.junit.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 /**
  * 아이템 2 : 생성자에 매개변수가 많다면 빌더를 고려하라
  *
@@ -64,4 +68,90 @@ public class Item02Test {
             .fat(100)
             .build();
     }
+
+    @Test
+    @TestDescription("대량의 NutritionFacts 는 필드별 컬럼 배열에 담아 집계할 수 있다.")
+    public void columnarTable() {
+        NutritionFactsTable table = new NutritionFactsTable(2);
+        table.append(new NutritionFactsOfBuilder.Builder(240, 8).calories(100).sodium(35).carbohydrate(27));
+        table.append(new NutritionFactsOfBuilder.Builder(200, 5).calories(500).fat(100).sodium(100).build());
+        table.append(100, 1, 300, 10, 500, 60);
+
+        assertThat(table.size()).isEqualTo(3);
+        assertThat(table.sum(Column.CALORIES)).isEqualTo(900);
+        assertThat(table.min(Column.SODIUM)).isEqualTo(35);
+        assertThat(table.max(Column.FAT)).isEqualTo(100);
+
+        int[] lowSodium = table.filterRange(Column.SODIUM, 0, 100);
+        assertThat(lowSodium).containsExactly(0, 1);
+        assertThat(table.sum(Column.CALORIES, lowSodium)).isEqualTo(600);
+        assertThat(table.filter(Column.SERVINGS, servings -> servings > 1)).containsExactly(0, 1);
+
+        NutritionFactsTable.Row row = table.row();
+        int rows = 0;
+        while (row.next()) {
+            rows++;
+        }
+        assertThat(rows).isEqualTo(3);
+        assertThat(row.moveTo(1).calories()).isEqualTo(500);
+        assertThat(row.toNutritionFacts().getFat()).isEqualTo(100);
+    }
+
+    @Test
+    @TestDescription("Builder 를 재사용해도 이미 build() 한 객체는 바뀌지 않는다.")
+    public void reusableBuilder() {
+        NutritionFactsOfBuilder.Builder builder = NutritionFactsOfBuilder.Builder.threadLocal(200, 5);
+        NutritionFactsOfBuilder first = builder.calories(500).fat(100).build();
+        NutritionFactsOfBuilder second = NutritionFactsOfBuilder.Builder.threadLocal(100, 1).sodium(10).build();
+
+        assertThat(NutritionFactsOfBuilder.Builder.threadLocal(1, 1)).isSameAs(builder);
+        assertThat(first.getServingSize()).isEqualTo(200);
+        assertThat(first.getCalories()).isEqualTo(500);
+        assertThat(second.getServingSize()).isEqualTo(100);
+        assertThat(second.getCalories()).isEqualTo(0);
+        assertThat(second.getSodium()).isEqualTo(10);
+
+        NutritionFactsOfJavaBeans pooled = new NutritionFactsOfJavaBeans();
+        builder.reset(240, 8).calories(100).carbohydrate(27).buildInto(pooled);
+        assertThat(pooled.getServingSize()).isEqualTo(240);
+        assertThat(pooled.getCalories()).isEqualTo(100);
+        assertThat(pooled.getFat()).isEqualTo(0);
+        assertThat(pooled.getCarbohydrate()).isEqualTo(27);
+    }
+
+    @Test
+    @TestDescription("여러 레코드를 한 번에 검증하고, 첫 오류에서 멈추지 않고 모든 오류를 모은다.")
+    public void batchBuilder() {
+        int[][] tuples = {
+            {240, 8, 100, 0, 35, 27},
+            {200},
+            {0, 5, -1},
+            {100, 1},
+            {1, 1, 1, 1, 1, 1, 1}
+        };
+
+        NutritionFactsBatch.Result result = NutritionFactsBatch.of(tuples);
+
+        assertThat(result.recordCount()).isEqualTo(5);
+        assertThat(result.validCount()).isEqualTo(2);
+        assertThat(result.sourceIndex(1)).isEqualTo(3);
+        assertThat(result.violations())
+            .extracting(NutritionFactsBatch.Violation::getRecordIndex)
+            .containsExactly(1, 2, 2, 4);
+        assertThat(result.violations())
+            .extracting(NutritionFactsBatch.Violation::getField)
+            .containsExactly(Column.SERVINGS, Column.SERVING_SIZE, Column.CALORIES, null);
+
+        assertThat(result.toList()).extracting(NutritionFactsOfBuilder::getServingSize).containsExactly(240, 100);
+        assertThat(result.toTable().sum(Column.CALORIES)).isEqualTo(100);
+
+        // 반환된 테이블에 행을 더해도 Result 는 바뀌지 않는다.
+        result.toTable().append(1, 1, 500, 0, 0, 0);
+        assertThat(result.validCount()).isEqualTo(2);
+        assertThat(result.toTable().sum(Column.CALORIES)).isEqualTo(100);
+
+        NutritionFactsBatch.Result streamed = NutritionFactsBatch.of(Stream.of(tuples));
+        assertThat(streamed.violations()).isEqualTo(result.violations());
+        assertThat(streamed.validCount()).isEqualTo(2);
+    }
 }
@@ -0,0 +1,226 @@
+package chap02.item02;
+
+import chap02.item02.NutritionFactsTable.Column;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/*
+NutritionFacts 여러 건을 한 번에 검증하고 만드는 일괄 빌더.
+
+각 레코드는 점층적 생성자와 같은 순서의 int 배열(tuple)이다.
+{servingSize, servings, calories, fat, sodium, carbohydrate} 중 앞의 두 값은 필수이고 나머지는 생략하면 0 이다.
+
+검증 규칙
+- servingSize, servings 는 반드시 있어야 하고 1 이상이어야 한다.
+- calories, fat, sodium, carbohydrate 는 0 이상이어야 한다.
+- 값이 6개를 넘으면 안 된다.
+
+모든 레코드를 한 번만 훑으면서 검증하고, 통과한 레코드는 곧바로 NutritionFactsTable 에 쌓는다.
+첫 번째 오류에서 예외를 던지지 않고 레코드 번호와 필드별 오류를 모두 모아 Result 로 돌려준다.
+ */
+public final class NutritionFactsBatch {
+
+    private static final int REQUIRED_FIELDS = 2;
+    private static final Column[] FIELDS = Column.values();
+
+    private NutritionFactsBatch() {
+    }
+
+    public static Result of(int[][] tuples) {
+        Collector collector = new Collector(tuples.length);
+        for (int[] tuple : tuples) {
+            collector.accept(tuple);
+        }
+        return collector.result();
+    }
+
+    public static Result of(Stream<int[]> tuples) {
+        Collector collector = new Collector(16);
+        tuples.sequential().forEachOrdered(collector::accept);
+        return collector.result();
+    }
+
+    private static final class Collector {
+
+        private final NutritionFactsTable table;
+        private final List<Violation> violations = new ArrayList<>();
+        private int[] sourceIndexes;
+        private int index;
+
+        Collector(int expectedSize) {
+            table = new NutritionFactsTable(expectedSize);
+            sourceIndexes = new int[Math.max(expectedSize, 1)];
+        }
+
+        void accept(int[] tuple) {
+            int record = index++;
+            if (isValid(record, tuple)) {
+                int row = table.append(tuple[0], tuple[1], valueAt(tuple, 2), valueAt(tuple, 3),
+                    valueAt(tuple, 4), valueAt(tuple, 5));
+                if (row == sourceIndexes.length) {
+                    sourceIndexes = Arrays.copyOf(sourceIndexes, row + (row >> 1) + 1);
+                }
+                sourceIndexes[row] = record;
+            }
+        }
+
+        private boolean isValid(int record, int[] tuple) {
+            if (tuple == null) {
+                violations.add(new Violation(record, null, 0, "record is null"));
+                return false;
+            }
+            if (tuple.length > FIELDS.length) {
+                violations.add(new Violation(record, null, tuple.length,
+                    "expected at most " + FIELDS.length + " fields but was " + tuple.length));
+                return false;
+            }
+
+            boolean valid = true;
+            for (int f = 0; f < REQUIRED_FIELDS; f++) {
+                if (f >= tuple.length) {
+                    violations.add(new Violation(record, FIELDS[f], 0, FIELDS[f] + " is required"));
+                    valid = false;
+                } else if (tuple[f] < 1) {
+                    violations.add(new Violation(record, FIELDS[f], tuple[f], FIELDS[f] + " must be positive"));
+                    valid = false;
+                }
+            }
+            for (int f = REQUIRED_FIELDS; f < tuple.length; f++) {
+                if (tuple[f] < 0) {
+                    violations.add(new Violation(record, FIELDS[f], tuple[f], FIELDS[f] + " must not be negative"));
+                    valid = false;
+                }
+            }
+            return valid;
+        }
+
+        private static int valueAt(int[] tuple, int field) {
+            return field < tuple.length ? tuple[field] : 0;
+        }
+
+        Result result() {
+            return new Result(index, table, Arrays.copyOf(sourceIndexes, table.size()), violations);
+        }
+    }
+
+    public static final class Result {
+
+        private final int recordCount;
+        private final NutritionFactsTable table;
+        private final int[] sourceIndexes;
+        private final List<Violation> violations;
+
+        private Result(int recordCount, NutritionFactsTable table, int[] sourceIndexes,
+            List<Violation> violations) {
+            this.recordCount = recordCount;
+            this.table = table;
+            this.sourceIndexes = sourceIndexes;
+            this.violations = Collections.unmodifiableList(violations);
+        }
+
+        public int recordCount() {
+            return recordCount;
+        }
+
+        public int validCount() {
+            return table.size();
+        }
+
+        public boolean hasViolations() {
+            return !violations.isEmpty();
+        }
+
+        public List<Violation> violations() {
+            return violations;
+        }
+
+        /*
+        검증을 통과한 레코드들이 담긴 테이블의 복사본. 반환된 테이블을 고쳐도 Result 에는 영향이 없다.
+         */
+        public NutritionFactsTable toTable() {
+            return new NutritionFactsTable(table);
+        }
+
+        /*
+        검증을 통과한 레코드들을 입력 순서대로 불변 객체로 만든다.
+         */
+        public List<NutritionFactsOfBuilder> toList() {
+            List<NutritionFactsOfBuilder> list = new ArrayList<>(table.size());
+            NutritionFactsTable.Row row = table.row();
+            while (row.next()) {
+                list.add(row.toNutritionFacts());
+            }
+            return list;
+        }
+
+        /*
+        테이블의 row 번째 행이 입력의 몇 번째 레코드였는지 반환한다.
+         */
+        public int sourceIndex(int row) {
+            if (row < 0 || row >= sourceIndexes.length) {
+                throw new IndexOutOfBoundsException("row: " + row);
+            }
+            return sourceIndexes[row];
+        }
+    }
+
+    public static final class Violation {
+
+        private final int recordIndex;
+        private final Column field;
+        private final int value;
+        private final String message;
+
+        private Violation(int recordIndex, Column field, int value, String message) {
+            this.recordIndex = recordIndex;
+            this.field = field;
+            this.value = value;
+            this.message = message;
+        }
+
+        public int getRecordIndex() {
+            return recordIndex;
+        }
+
+        /*
+        레코드 전체가 잘못된 경우(null, 필드 수 초과)에는 null 이다.
+         */
+        public Column getField() {
+            return field;
+        }
+
+        public int getValue() {
+            return value;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Violation)) {
+                return false;
+            }
+            Violation v = (Violation) o;
+            return recordIndex == v.recordIndex
+                && field == v.field
+                && value == v.value
+                && message.equals(v.message);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(recordIndex, field, value, message);
+        }
+
+        @Override
+        public String toString() {
+            return "record " + recordIndex + ": " + message;
+        }
+    }
+}
@@ -9,11 +9,20 @@ public class NutritionFactsOfBuilder {
     private final int sodium;
     private final int carbohydrate;
 
+    /*
+    Builder 는 build() 이후에도 재사용할 수 있다.
+    - reset() 으로 필수 인자를 다시 정하고 선택적 인자를 기본값으로 되돌린다.
+    - threadLocal() 은 스레드마다 하나씩 있는 Builder 를 reset 해서 돌려준다. 반복문에서 Builder 를 매번 만들지 않아도 된다.
+    - buildInto() 는 객체를 만들지 않고 값을 NutritionFactsSink 에 써 넣는다.
+    build() 가 반환하는 객체는 여전히 불변이며, 그 뒤에 Builder 를 바꿔도 영향을 받지 않는다.
+     */
     public static class Builder {
 
+        private static final ThreadLocal<Builder> THREAD_LOCAL = ThreadLocal.withInitial(() -> new Builder(0, 0));
+
         // 필수 인자
-        private final int servingSize;
-        private final int servings;
+        private int servingSize;
+        private int servings;
 
         // 선택적 인자는 기본값으로 초기화
         private int calories = 0;
@@ -47,9 +56,28 @@ public class NutritionFactsOfBuilder {
             return this;
         }
 
+        public static Builder threadLocal(int servingSize, int servings) {
+            return THREAD_LOCAL.get().reset(servingSize, servings);
+        }
+
+        public Builder reset(int servingSize, int servings) {
+            this.servingSize = servingSize;
+            this.servings = servings;
+            this.calories = 0;
+            this.fat = 0;
+            this.sodium = 0;
+            this.carbohydrate = 0;
+            return this;
+        }
+
         public NutritionFactsOfBuilder build() {
             return new NutritionFactsOfBuilder(this);
         }
+
+        public <S extends NutritionFactsSink> S buildInto(S sink) {
+            sink.accept(servingSize, servings, calories, fat, sodium, carbohydrate);
+            return sink;
+        }
     }
 
     private NutritionFactsOfBuilder(Builder builder) {
@@ -60,4 +88,28 @@ public class NutritionFactsOfBuilder {
         this.sodium = builder.sodium;
         this.carbohydrate = builder.carbohydrate;
     }
+
+    public int getServingSize() {
+        return servingSize;
+    }
+
+    public int getServings() {
+        return servings;
+    }
+
+    public int getCalories() {
+        return calories;
+    }
+
+    public int getFat() {
+        return fat;
+    }
+
+    public int getSodium() {
+        return sodium;
+    }
+
+    public int getCarbohydrate() {
+        return carbohydrate;
+    }
 }
@@ -1,6 +1,6 @@
 package chap02.item02;
 
-public class NutritionFactsOfJavaBeans {
+public class NutritionFactsOfJavaBeans implements NutritionFactsSink {
 
     private int servingSize;
     private int servings;
@@ -35,4 +35,41 @@ public class NutritionFactsOfJavaBeans {
     public void setCarbohydrate(int carbohydrate) {
         this.carbohydrate = carbohydrate;
     }
+
+    /*
+    Builder.buildInto 로 재사용하는 가변 객체에 값을 한 번에 채울 수 있다.
+     */
+    @Override
+    public void accept(int servingSize, int servings, int calories, int fat, int sodium, int carbohydrate) {
+        this.servingSize = servingSize;
+        this.servings = servings;
+        this.calories = calories;
+        this.fat = fat;
+        this.sodium = sodium;
+        this.carbohydrate = carbohydrate;
+    }
+
+    public int getServingSize() {
+        return servingSize;
+    }
+
+    public int getServings() {
+        return servings;
+    }
+
+    public int getCalories() {
+        return calories;
+    }
+
+    public int getFat() {
+        return fat;
+    }
+
+    public int getSodium() {
+        return sodium;
+    }
+
+    public int getCarbohydrate() {
+        return carbohydrate;
+    }
 }
@@ -0,0 +1,13 @@
+package chap02.item02;
+
+/*
+Builder.buildInto 가 값을 써 넣는 대상.
+
+매번 새 불변 객체를 만드는 대신, 풀에서 꺼낸 가변 객체나 NutritionFactsTable 같은 저장소에
+필드 값만 전달하고 싶을 때 구현한다.
+ */
+@FunctionalInterface
+public interface NutritionFactsSink {
+
+    void accept(int servingSize, int servings, int calories, int fat, int sodium, int carbohydrate);
+}
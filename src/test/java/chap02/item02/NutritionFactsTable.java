@@ -0,0 +1,267 @@
+package chap02.item02;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/*
+NutritionFacts 수백만 건을 필드별 int[] 컬럼으로 저장하는 열 지향(struct-of-arrays) 테이블.
+
+객체 리스트로 들고 있으면 건마다 객체 헤더와 참조가 붙고, 합계 같은 집계를 할 때마다 포인터를 따라가야 한다.
+컬럼 배열은 같은 필드가 메모리에 연속으로 놓이므로 합계, 최솟값, 범위 필터 같은 스캔이
+단순한 배열 순회가 되고 JIT 이 루프를 벡터화하기도 쉽다.
+
+한 행을 객체처럼 다루고 싶을 때는 Row 를 사용한다. Row 는 행 번호만 바꿔가며 재사용하는 플라이웨이트다.
+이 클래스는 스레드 안전하지 않다.
+ */
+public class NutritionFactsTable implements NutritionFactsSink {
+
+    public enum Column {
+        SERVING_SIZE, SERVINGS, CALORIES, FAT, SODIUM, CARBOHYDRATE
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final int[][] columns = new int[Column.values().length][];
+    private int size;
+
+    public NutritionFactsTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public NutritionFactsTable(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity: " + initialCapacity);
+        }
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = new int[initialCapacity];
+        }
+    }
+
+    /*
+    다른 테이블의 행을 복사한 새 테이블. 여유 용량 없이 행 수만큼만 잡는다.
+     */
+    public NutritionFactsTable(NutritionFactsTable other) {
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = Arrays.copyOf(other.columns[c], other.size);
+        }
+        size = other.size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /*
+    행을 추가하고 추가된 행 번호를 반환한다.
+     */
+    public int append(int servingSize, int servings, int calories, int fat, int sodium, int carbohydrate) {
+        ensureCapacity(size + 1);
+        int row = size++;
+        columns[Column.SERVING_SIZE.ordinal()][row] = servingSize;
+        columns[Column.SERVINGS.ordinal()][row] = servings;
+        columns[Column.CALORIES.ordinal()][row] = calories;
+        columns[Column.FAT.ordinal()][row] = fat;
+        columns[Column.SODIUM.ordinal()][row] = sodium;
+        columns[Column.CARBOHYDRATE.ordinal()][row] = carbohydrate;
+        return row;
+    }
+
+    /*
+    빌더에 설정된 값을 객체를 만들지 않고 바로 행으로 추가한다.
+     */
+    public int append(NutritionFactsOfBuilder.Builder builder) {
+        builder.buildInto(this);
+        return size - 1;
+    }
+
+    @Override
+    public void accept(int servingSize, int servings, int calories, int fat, int sodium, int carbohydrate) {
+        append(servingSize, servings, calories, fat, sodium, carbohydrate);
+    }
+
+    public int append(NutritionFactsOfBuilder nutritionFacts) {
+        return append(nutritionFacts.getServingSize(), nutritionFacts.getServings(),
+            nutritionFacts.getCalories(), nutritionFacts.getFat(), nutritionFacts.getSodium(),
+            nutritionFacts.getCarbohydrate());
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        int capacity = columns[0].length;
+        if (minCapacity <= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(minCapacity, capacity + (capacity >> 1));
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = Arrays.copyOf(columns[c], newCapacity);
+        }
+    }
+
+    public int get(Column column, int row) {
+        checkRow(row);
+        return columns[column.ordinal()][row];
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row: " + row + ", size: " + size);
+        }
+    }
+
+    public long sum(Column column) {
+        int[] values = columns[column.ordinal()];
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    public int min(Column column) {
+        checkNotEmpty();
+        int[] values = columns[column.ordinal()];
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    public int max(Column column) {
+        checkNotEmpty();
+        int[] values = columns[column.ordinal()];
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new NoSuchElementException("table is empty");
+        }
+    }
+
+    /*
+    column 값이 [minInclusive, maxInclusive] 범위에 있는 행 번호들을 오름차순으로 반환한다.
+    조건 분기 대신 비교 결과만큼 쓰기 위치를 옮기므로 분기 예측 실패가 없다.
+     */
+    public int[] filterRange(Column column, int minInclusive, int maxInclusive) {
+        int[] values = columns[column.ordinal()];
+        int[] rows = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int v = values[i];
+            rows[count] = i;
+            count += (v >= minInclusive & v <= maxInclusive) ? 1 : 0;
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    public int[] filter(Column column, IntPredicate predicate) {
+        int[] values = columns[column.ordinal()];
+        int[] rows = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (predicate.test(values[i])) {
+                rows[count++] = i;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /*
+    filterRange 등으로 고른 행들에 대해서만 합계를 구한다.
+     */
+    public long sum(Column column, int[] rows) {
+        int[] values = columns[column.ordinal()];
+        long sum = 0;
+        for (int row : rows) {
+            if (row < 0 || row >= size) {
+                throw new IndexOutOfBoundsException("row: " + row + ", size: " + size);
+            }
+            sum += values[row];
+        }
+        return sum;
+    }
+
+    /*
+    행 번호를 바꿔가며 재사용하는 뷰를 만든다. 처음에는 어떤 행도 가리키지 않는다.
+     */
+    public Row row() {
+        return new Row();
+    }
+
+    public final class Row {
+
+        private int index = -1;
+
+        private Row() {
+        }
+
+        public Row moveTo(int row) {
+            checkRow(row);
+            index = row;
+            return this;
+        }
+
+        /*
+        다음 행으로 이동한다. 더 이상 행이 없으면 false 를 반환한다.
+         */
+        public boolean next() {
+            if (index + 1 >= size) {
+                return false;
+            }
+            index++;
+            return true;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public int servingSize() {
+            return value(Column.SERVING_SIZE);
+        }
+
+        public int servings() {
+            return value(Column.SERVINGS);
+        }
+
+        public int calories() {
+            return value(Column.CALORIES);
+        }
+
+        public int fat() {
+            return value(Column.FAT);
+        }
+
+        public int sodium() {
+            return value(Column.SODIUM);
+        }
+
+        public int carbohydrate() {
+            return value(Column.CARBOHYDRATE);
+        }
+
+        private int value(Column column) {
+            if (index < 0) {
+                throw new IllegalStateException("row is not positioned");
+            }
+            return columns[column.ordinal()][index];
+        }
+
+        /*
+        현재 행을 불변 객체로 복사한다.
+         */
+        public NutritionFactsOfBuilder toNutritionFacts() {
+            return new NutritionFactsOfBuilder.Builder(servingSize(), servings())
+                .calories(calories())
+                .fat(fat())
+                .sodium(sodium())
+                .carbohydrate(carbohydrate())
+                .build();
+        }
+    }
+}
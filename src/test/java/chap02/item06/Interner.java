@@ -0,0 +1,196 @@
+package chap02.item06;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/*
+String.intern(), Boolean.valueOf() 처럼 같은 값의 객체를 하나만 남기고 재사용하게 해 주는 인터너.
+
+Interner<PackedPhoneNumber> interner = Interner.weak();
+PackedPhoneNumber number = interner.intern(PackedPhoneNumber.parse(line));
+
+intern(value) 는 value 와 equals 인 객체를 처음 넘겨받은 것으로 바꿔 돌려준다.
+같은 전화번호, 이름이 수십만 번 반복되는 데이터를 오래 들고 있을 때 살아 있는 힙을 크게 줄인다.
+값 클래스는 불변이어야 하고 equals, hashCode 를 재정의해야 한다.
+
+- strong() : ConcurrentHashMap 에 강한 참조로 담는다. 한 번 인터닝한 값은 인터너가 살아 있는 한 남는다.
+- strong(maxSize) : maxSize 개까지만 담고, 가득 차면 새 값은 담지 않고 그대로 돌려준다. (이미 담긴 값은 계속 재사용)
+- weak() : 약한 참조로 담는다. 인터너 밖에서 아무도 참조하지 않는 값은 GC 가 회수하고, 다음 intern 호출 때 항목을 지운다.
+
+세 가지 모두 잠금 없이 ConcurrentHashMap 만 쓴다.
+ */
+public abstract class Interner<T> {
+
+    private Interner() {
+    }
+
+    public static <T> Interner<T> strong() {
+        return new StrongInterner<>(Integer.MAX_VALUE);
+    }
+
+    public static <T> Interner<T> strong(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize: " + maxSize);
+        }
+        return new StrongInterner<>(maxSize);
+    }
+
+    public static <T> Interner<T> weak() {
+        return new WeakInterner<>();
+    }
+
+    public abstract T intern(T value);
+
+    /*
+    지금 담고 있는 값의 수. weak 모드에서는 회수됐지만 아직 지우지 않은 항목도 포함한다.
+     */
+    public abstract int size();
+
+    private static final class StrongInterner<T> extends Interner<T> {
+
+        private final ConcurrentMap<T, T> map = new ConcurrentHashMap<>();
+        private final int maxSize;
+
+        StrongInterner(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public T intern(T value) {
+            Objects.requireNonNull(value);
+            T canonical = map.get(value);
+            if (canonical != null) {
+                return canonical;
+            }
+            // 여러 스레드가 동시에 넣으면 maxSize 를 조금 넘길 수 있다.
+            if (map.size() >= maxSize) {
+                return value;
+            }
+            canonical = map.putIfAbsent(value, value);
+            return canonical != null ? canonical : value;
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+    }
+
+    private static final class WeakInterner<T> extends Interner<T> {
+
+        private final ConcurrentMap<Key<T>, WeakKey<T>> map = new ConcurrentHashMap<>();
+        private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+        @Override
+        public T intern(T value) {
+            Objects.requireNonNull(value);
+            purge();
+            LookupKey<T> lookup = new LookupKey<>(value);
+            while (true) {
+                WeakKey<T> existing = map.get(lookup);
+                if (existing == null) {
+                    WeakKey<T> created = new WeakKey<>(value, lookup.hash, queue);
+                    existing = map.putIfAbsent(created, created);
+                    if (existing == null) {
+                        return value;
+                    }
+                }
+                T canonical = existing.get();
+                if (canonical != null) {
+                    return canonical;
+                }
+                // 방금 회수된 항목이다. 지우고 다시 넣는다.
+                map.remove(existing, existing);
+            }
+        }
+
+        @Override
+        public int size() {
+            purge();
+            return map.size();
+        }
+
+        private void purge() {
+            Reference<? extends T> cleared;
+            while ((cleared = queue.poll()) != null) {
+                WeakKey<?> key = (WeakKey<?>) cleared;
+                map.remove(key, key);
+            }
+        }
+    }
+
+    /*
+    맵의 키는 WeakKey 이고, 조회할 때는 값을 강하게 잡는 LookupKey 를 쓴다. 둘은 담긴 값이 equals 면 같다.
+    회수된 WeakKey 는 자기 자신하고만 같아서 purge 할 때 정확히 그 항목만 지울 수 있다.
+     */
+    private interface Key<T> {
+
+        T value();
+    }
+
+    private static boolean keyEquals(Key<?> self, Object other) {
+        if (self == other) {
+            return true;
+        }
+        if (!(other instanceof Key)) {
+            return false;
+        }
+        Object value = self.value();
+        return value != null && value.equals(((Key<?>) other).value());
+    }
+
+    private static final class LookupKey<T> implements Key<T> {
+
+        private final T value;
+        private final int hash;
+
+        LookupKey(T value) {
+            this.value = value;
+            this.hash = value.hashCode();
+        }
+
+        @Override
+        public T value() {
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return keyEquals(this, o);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class WeakKey<T> extends WeakReference<T> implements Key<T> {
+
+        private final int hash;
+
+        WeakKey(T value, int hash, ReferenceQueue<T> queue) {
+            super(value, queue);
+            this.hash = hash;
+        }
+
+        @Override
+        public T value() {
+            return get();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return keyEquals(this, o);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package chap02.item06;
 
+import chap03.item12.PackedPhoneNumber;
+import chap04.item15.Member;
+import common.MemoryProbe;
 import common.TestDescription;
 import org.junit.Test;
 
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
+import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * 아이템 6 : 불필요한 객체 생성을 피하라
@@ -38,4 +42,53 @@ public class Item06Test {
         assertSame(c, d);
         assertSame(e, f);
     }
+
+    @Test
+    @TestDescription("값 클래스도 Interner 로 같은 값의 객체를 하나만 재사용할 수 있다.")
+    public void internerTest() {
+        Interner<PackedPhoneNumber> phoneNumbers = Interner.strong();
+        Interner<Member> members = Interner.weak();
+
+        PackedPhoneNumber a = phoneNumbers.intern(PackedPhoneNumber.parse("010-123-4567"));
+        PackedPhoneNumber b = phoneNumbers.intern(PackedPhoneNumber.parse("010-123-4567"));
+        Member c = members.intern(new Member("NJ", 28));
+        Member d = members.intern(new Member("NJ", 28));
+
+        // 주소값을 비교
+        assertSame(a, b);
+        assertSame(c, d);
+        assertNotSame(c, members.intern(new Member("NJ", 29)));
+    }
+
+    @Test
+    @TestDescription("크기 제한에 닿으면 새 값은 담지 않고 받은 값을 그대로 돌려준다.")
+    public void boundedInternerTest() {
+        Interner<String> interner = Interner.strong(2);
+        String a = interner.intern(new String("a"));
+        interner.intern(new String("b"));
+
+        String c = new String("c");
+
+        // 가득 차면 새 값은 담지 않고 그대로 돌려주지만, 이미 담긴 값은 계속 재사용한다.
+        assertSame(c, interner.intern(c));
+        String anotherC = new String("c");
+        assertSame(anotherC, interner.intern(anotherC));
+        assertSame(a, interner.intern(new String("a")));
+        assertThat(interner.size()).isEqualTo(2);
+    }
+
+    @Test
+    @TestDescription("weak 모드에서는 밖에서 참조하지 않는 값이 GC 로 회수된다.")
+    public void weakInternerTest() {
+        Interner<String> interner = Interner.weak();
+        String kept = interner.intern(new String("kept"));
+        for (int i = 0; i < 10_000; i++) {
+            interner.intern(new String("garbage-" + i));
+        }
+
+        MemoryProbe.forceGc();
+
+        assertThat(interner.size()).isLessThan(10_000);
+        assertSame(kept, interner.intern(new String("kept")));
+    }
 }
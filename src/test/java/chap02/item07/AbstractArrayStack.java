@@ -0,0 +1,76 @@
+package chap02.item07;
+
+/*
+배열 기반 스택들이 공유하는 크기 관리 로직.
+
+- 가득 차면 1.5배로 늘린다. (2 * size + 1 은 큰 스택에서 메모리를 지나치게 많이 잡는다)
+- shrinkable 이면 원소 수가 용량의 1/4 이하로 줄었을 때 용량을 절반으로 줄인다. (한꺼번에 많이 꺼냈다면 여러 번 절반으로 줄인다)
+  늘리는 기준(가득 참)과 줄이는 기준(1/4) 사이에 간격(hysteresis)을 두어,
+  경계에서 push 와 pop 이 번갈아 일어나도 배열을 반복해서 다시 만들지 않는다.
+- 초기 용량보다 작게 줄이지는 않는다.
+ */
+abstract class AbstractArrayStack {
+
+    static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private final int initialCapacity;
+    private final boolean shrinkable;
+    int size = 0;
+
+    AbstractArrayStack(int initialCapacity, boolean shrinkable) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("initialCapacity: " + initialCapacity);
+        }
+        this.initialCapacity = initialCapacity;
+        this.shrinkable = shrinkable;
+    }
+
+    abstract int capacity();
+
+    abstract void resize(int newCapacity);
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    final void ensureCapacity(int minCapacity) {
+        int capacity = capacity();
+        if (minCapacity <= capacity) {
+            return;
+        }
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required stack capacity is too large: " + minCapacity);
+        }
+        int newCapacity = capacity + (capacity >> 1);
+        if (newCapacity < minCapacity || newCapacity > MAX_CAPACITY) {
+            newCapacity = Math.max(minCapacity, Math.min(newCapacity, MAX_CAPACITY));
+        }
+        resize(newCapacity);
+    }
+
+    final void shrinkIfNeeded() {
+        if (!shrinkable) {
+            return;
+        }
+        int capacity = capacity();
+        int newCapacity = capacity;
+        while (newCapacity > initialCapacity && size <= newCapacity >> 2) {
+            newCapacity = Math.max(initialCapacity, newCapacity >> 1);
+        }
+        if (newCapacity != capacity) {
+            resize(newCapacity);
+        }
+    }
+
+    static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IndexOutOfBoundsException(
+                "offset: " + offset + ", length: " + length + ", array length: " + arrayLength);
+        }
+    }
+}
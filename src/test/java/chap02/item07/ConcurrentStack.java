@@ -0,0 +1,133 @@
+package chap02.item07;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+락 없이 여러 스레드가 함께 쓸 수 있는 스택. (Treiber stack + elimination backoff)
+
+- 맨 위 노드를 AtomicReference 로 가리키고, push / pop 은 compareAndSet 으로 맨 위를 바꾼다.
+  pop 한 노드는 스택에서 완전히 떨어져 나가므로 ObjectStack 처럼 따로 참조를 지울 필요가 없다.
+- 경합으로 CAS 가 실패하면 바로 재시도하지 않고 elimination 배열에서 반대 연산을 찾는다.
+  push 는 빈 칸에 원소를 올려두고 잠시 기다리며, 그 사이 pop 이 그 칸의 원소를 가져가면
+  두 연산은 맨 위 노드를 건드리지 않고 서로 상쇄된다. 맨 위 노드에 몰리는 경합이 그만큼 줄어든다.
+- null 원소는 허용하지 않는다. pop / peek 은 스택이 비어 있으면 null 을 반환한다.
+ */
+public class ConcurrentStack<E> {
+
+    private static final int ELIMINATION_SPINS = 128;
+
+    private final AtomicReference<Node<E>> top = new AtomicReference<>();
+    private final AtomicReferenceArray<Offer<E>> eliminationSlots;
+
+    public ConcurrentStack() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /*
+    eliminationWidth 가 0 이면 elimination 없이 순수한 Treiber 스택으로 동작한다.
+     */
+    public ConcurrentStack(int eliminationWidth) {
+        if (eliminationWidth < 0) {
+            throw new IllegalArgumentException("eliminationWidth: " + eliminationWidth);
+        }
+        this.eliminationSlots = new AtomicReferenceArray<>(eliminationWidth);
+    }
+
+    public void push(E e) {
+        Node<E> node = new Node<>(Objects.requireNonNull(e));
+        while (true) {
+            Node<E> current = top.get();
+            node.next = current;
+            if (top.compareAndSet(current, node)) {
+                return;
+            }
+            if (tryEliminatePush(e)) {
+                return;
+            }
+        }
+    }
+
+    public E pop() {
+        while (true) {
+            Node<E> current = top.get();
+            if (current == null) {
+                return null;
+            }
+            if (top.compareAndSet(current, current.next)) {
+                return current.item;
+            }
+            E eliminated = tryEliminatePop();
+            if (eliminated != null) {
+                return eliminated;
+            }
+        }
+    }
+
+    public E peek() {
+        Node<E> current = top.get();
+        return current == null ? null : current.item;
+    }
+
+    public boolean isEmpty() {
+        return top.get() == null;
+    }
+
+    /*
+    빈 칸에 원소를 올려두고 기다린다. 칸이 다른 값으로 바뀌었다면 pop 이 가져간 것이므로 성공이다.
+    기다리는 동안 아무도 가져가지 않으면 스스로 칸을 비우고 실패를 반환한다.
+    이 마지막 CAS 가 실패했다면 그 직전에 pop 이 가져간 것이다.
+     */
+    private boolean tryEliminatePush(E e) {
+        int width = eliminationSlots.length();
+        if (width == 0) {
+            return false;
+        }
+        int slot = ThreadLocalRandom.current().nextInt(width);
+        Offer<E> offer = new Offer<>(e);
+        if (!eliminationSlots.compareAndSet(slot, null, offer)) {
+            return false;
+        }
+        for (int i = 0; i < ELIMINATION_SPINS; i++) {
+            if (eliminationSlots.get(slot) != offer) {
+                return true;
+            }
+        }
+        return !eliminationSlots.compareAndSet(slot, offer, null);
+    }
+
+    private E tryEliminatePop() {
+        int width = eliminationSlots.length();
+        if (width == 0) {
+            return null;
+        }
+        int slot = ThreadLocalRandom.current().nextInt(width);
+        Offer<E> offer = eliminationSlots.get(slot);
+        if (offer != null && eliminationSlots.compareAndSet(slot, offer, null)) {
+            return offer.item;
+        }
+        return null;
+    }
+
+    private static final class Node<E> {
+
+        private final E item;
+        private Node<E> next;
+
+        Node(E item) {
+            this.item = item;
+        }
+    }
+
+    // 같은 원소를 두 번 push 해도 칸의 주인을 구분할 수 있도록 원소를 한 번 감싼다.
+    private static final class Offer<E> {
+
+        private final E item;
+
+        Offer(E item) {
+            this.item = item;
+        }
+    }
+}
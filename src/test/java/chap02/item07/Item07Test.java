@@ -1,10 +1,21 @@
 package chap02.item07;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assume.assumeTrue;
 
+import common.MemoryProbe;
 import common.TestDescription;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.EmptyStackException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
 import org.junit.Test;
 
@@ -17,26 +28,196 @@ import org.junit.Test;
  */
 public class Item07Test {
 
+    /*
+    Runtime.totalMemory() 는 JVM 이 확보한 힙의 크기라서 스택이 객체를 붙잡고 있는지 알 수 없다.
+    꺼낸 객체를 WeakReference 로 추적하면 GC 후에도 살아있는지, 즉 누수가 있는지 확인할 수 있다.
+     */
     @Test
     @TestDescription("구현 Stack에서 메모리 누수 테스트")
     public void memoryLeak() {
-        String name = "NAMJUNE KIM";
-        Stack stack1 = new Stack();
-        Stack stack2 = new Stack();
-        Runtime runtime = Runtime.getRuntime();
-
-        long start1 = runtime.totalMemory();
-        IntStream.range(0, 2000).forEach((i) -> stack1.push(name + i));
-        long end1 = runtime.totalMemory();
-
-        long start2 = runtime.totalMemory();
-        IntStream.range(0, 2000).forEach((i) -> stack2.push(name + i));
-        IntStream.range(0, 500).forEach(value -> stack2.pop());
-        long end2 = runtime.totalMemory();
-
-        assertThat(stack1.size).isEqualTo(2000);
-        assertThat(stack2.size).isEqualTo(1500);
-        assertThat(end1 - start1).isEqualTo(end2 - start2);
+        MemoryProbe.Tracker tracker = MemoryProbe.tracker();
+        Stack stack = new Stack();
+        IntStream.range(0, 2000).forEach((i) -> stack.push(tracker.track(new Object())));
+        IntStream.range(0, 500).forEach(value -> stack.pop());
+
+        // 꺼낸 500개도 다 쓴 참조로 남아 있어 수거되지 않는다.
+        assertThat(tracker.liveCount()).isEqualTo(2000);
+        assertThat(stack.size).isEqualTo(1500);
+    }
+
+    @Test
+    @TestDescription("ObjectStack 은 꺼낸 객체를 붙잡고 있지 않는다.")
+    public void memoryLeakFixed() {
+        MemoryProbe.Tracker tracker = MemoryProbe.tracker();
+        ObjectStack<Object> stack = new ObjectStack<>();
+        IntStream.range(0, 2000).forEach((i) -> stack.push(tracker.track(new Object())));
+        IntStream.range(0, 500).forEach(value -> stack.pop());
+
+        assertThat(tracker.liveCount()).isEqualTo(1500);
+        assertThat(stack.size()).isEqualTo(1500);
+    }
+
+    @Test
+    @TestDescription("누수가 있는 Stack 은 꺼낸 원소만큼 메모리를 더 붙잡고 있다.")
+    public void retainedBytes() {
+        long leaking = MemoryProbe.retainedBytes(() -> {
+            Stack stack = new Stack();
+            IntStream.range(0, 2000).forEach((i) -> stack.push(new byte[1024]));
+            IntStream.range(0, 1500).forEach(value -> stack.pop());
+            return stack;
+        });
+        long fixed = MemoryProbe.retainedBytes(() -> {
+            ObjectStack<byte[]> stack = new ObjectStack<>();
+            IntStream.range(0, 2000).forEach((i) -> stack.push(new byte[1024]));
+            IntStream.range(0, 1500).forEach(value -> stack.pop());
+            return stack;
+        });
+
+        // 꺼낸 1500개 * 1KB 가 차이나야 한다. 측정 오차를 감안해 절반만 확인한다.
+        assertThat(leaking - fixed).isGreaterThan(750 * 1024);
+    }
+
+    @Test
+    @TestDescription("IntStack 은 박싱하지 않으므로 push / pop 에서 할당이 없다.")
+    public void primitiveStackAllocation() {
+        assumeTrue(MemoryProbe.isAllocationMeasurementSupported());
+        IntStack intStack = new IntStack(16);
+        ObjectStack<Integer> boxedStack = new ObjectStack<>(16);
+
+        double intStackBytes = MemoryProbe.allocatedBytesPerOperation(100_000, i -> {
+            intStack.push(i + 1000);
+            intStack.pop();
+        });
+        double boxedStackBytes = MemoryProbe.allocatedBytesPerOperation(100_000, i -> {
+            boxedStack.push(i + 1000);
+            boxedStack.pop();
+        });
+
+        assertThat(intStackBytes).isLessThan(1.0);
+        assertThat(boxedStackBytes).isGreaterThanOrEqualTo(16.0);
+    }
+
+    @Test
+    @TestDescription("ObjectStack 은 pop 할 때 참조를 지우고, 필요하면 용량도 줄인다.")
+    public void objectStack() {
+        ObjectStack<String> stack = new ObjectStack<>(16, true);
+        IntStream.range(0, 2000).forEach((i) -> stack.push("NAMJUNE KIM" + i));
+        int grownCapacity = stack.capacity();
+
+        assertThat(stack.pop()).isEqualTo("NAMJUNE KIM1999");
+        assertThat(stack.peek()).isEqualTo("NAMJUNE KIM1998");
+
+        String[] popped = new String[1500];
+        assertThat(stack.popInto(popped, 0, popped.length)).isEqualTo(1500);
+        assertThat(popped[0]).isEqualTo("NAMJUNE KIM1998");
+        assertThat(stack.size()).isEqualTo(499);
+        assertThat(stack.capacity()).isLessThan(grownCapacity);
+        assertThat(stack.capacity()).isGreaterThanOrEqualTo(stack.size());
+
+        stack.clear();
+        assertThat(stack.isEmpty()).isTrue();
+        assertThat(stack.capacity()).isEqualTo(16);
+        assertThatThrownBy(stack::pop).isInstanceOf(EmptyStackException.class);
+    }
+
+    @Test
+    @TestDescription("기본 타입 전용 스택은 박싱 없이 push / pop 한다.")
+    public void primitiveStack() {
+        IntStack intStack = new IntStack();
+        LongStack longStack = new LongStack();
+        DoubleStack doubleStack = new DoubleStack(1);
+        for (int i = 0; i < 100; i++) {
+            intStack.push(i);
+            longStack.push(i * 1_000_000_000L);
+            doubleStack.push(i / 2.0);
+        }
+
+        assertThat(intStack.pop()).isEqualTo(99);
+        assertThat(longStack.pop()).isEqualTo(99_000_000_000L);
+        assertThat(doubleStack.pop()).isEqualTo(49.5);
+
+        int[] bulk = {1, 2, 3};
+        intStack.pushAll(bulk, 0, bulk.length);
+        int[] popped = new int[5];
+        assertThat(intStack.popInto(popped, 1, 4)).isEqualTo(4);
+        assertThat(popped).containsExactly(0, 3, 2, 1, 98);
+        assertThat(intStack.size()).isEqualTo(98);
+
+        long[] longs = new long[200];
+        assertThat(longStack.popInto(longs, 0, longs.length)).isEqualTo(99);
+        assertThat(longStack.isEmpty()).isTrue();
+        assertThatThrownBy(() -> intStack.popInto(popped, 3, 4))
+            .isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    @TestDescription("ConcurrentStack 은 여러 스레드가 동시에 push / pop 해도 원소를 잃거나 중복하지 않는다.")
+    public void concurrentStack() throws Exception {
+        ConcurrentStack<Integer> stack = new ConcurrentStack<>();
+        stressTest(stack::push, stack::pop);
+
+        ConcurrentStack<String> lifo = new ConcurrentStack<>(0);
+        lifo.push("a");
+        lifo.push("b");
+        assertThat(lifo.peek()).isEqualTo("b");
+        assertThat(lifo.pop()).isEqualTo("b");
+        assertThat(lifo.pop()).isEqualTo("a");
+        assertThat(lifo.pop()).isNull();
+    }
+
+    @Test
+    @TestDescription("StripedConcurrentStack 도 원소를 잃거나 중복하지 않는다.")
+    public void stripedConcurrentStack() throws Exception {
+        StripedConcurrentStack<Integer> stack = new StripedConcurrentStack<>(4);
+        stressTest(stack::push, stack::pop);
+        assertThat(stack.isEmpty()).isTrue();
+    }
+
+    /*
+    스레드마다 겹치지 않는 값을 push 하면서 중간중간 pop 하고, 마지막에 남은 원소까지 모두 꺼낸다.
+    꺼낸 값이 push 한 값과 정확히 한 번씩 일치해야 한다.
+     */
+    private static void stressTest(Consumer<Integer> push, Supplier<Integer> pop) throws Exception {
+        int threads = 8;
+        int perThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        BitSet[] poppedByThread = new BitSet[threads];
+        Future<?>[] futures = new Future<?>[threads];
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            BitSet popped = poppedByThread[t] = new BitSet();
+            futures[t] = executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    push.accept(base + i);
+                    if (i % 3 == 0) {
+                        Integer value = pop.get();
+                        if (value != null) {
+                            assertThat(popped.get(value)).isFalse();
+                            popped.set(value);
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        BitSet all = new BitSet();
+        for (BitSet popped : poppedByThread) {
+            assertThat(all.intersects(popped)).isFalse();
+            all.or(popped);
+        }
+        for (Integer value = pop.get(); value != null; value = pop.get()) {
+            assertThat(all.get(value)).isFalse();
+            all.set(value);
+        }
+        assertThat(all.cardinality()).isEqualTo(threads * perThread);
     }
 
     class Stack {
@@ -0,0 +1,88 @@
+package chap02.item07;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/*
+long 전용 스택. 원소를 long[] 에 그대로 저장하므로 push / pop 에서 오토박싱이 일어나지 않는다.
+기본 타입에는 참조가 없으니 pop 한 칸을 지울 필요도 없다.
+
+이 클래스는 스레드 안전하지 않다.
+ */
+public class LongStack extends AbstractArrayStack {
+
+    private long[] elements;
+
+    public LongStack() {
+        this(DEFAULT_INITIAL_CAPACITY, false);
+    }
+
+    public LongStack(int initialCapacity) {
+        this(initialCapacity, false);
+    }
+
+    public LongStack(int initialCapacity, boolean shrinkable) {
+        super(initialCapacity, shrinkable);
+        elements = new long[initialCapacity];
+    }
+
+    @Override
+    int capacity() {
+        return elements.length;
+    }
+
+    @Override
+    void resize(int newCapacity) {
+        elements = Arrays.copyOf(elements, newCapacity);
+    }
+
+    public void push(long e) {
+        ensureCapacity(size + 1);
+        elements[size++] = e;
+    }
+
+    public long pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        long result = elements[--size];
+        shrinkIfNeeded();
+        return result;
+    }
+
+    public long peek() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return elements[size - 1];
+    }
+
+    /*
+    src[offset] 부터 순서대로 push 한다. 마지막 원소가 스택의 맨 위가 된다.
+     */
+    public void pushAll(long[] src, int offset, int length) {
+        checkRange(src.length, offset, length);
+        ensureCapacity(size + length);
+        System.arraycopy(src, offset, elements, size, length);
+        size += length;
+    }
+
+    /*
+    최대 length 개를 pop 해서 dst[offset] 부터 꺼낸 순서대로 담고, 실제로 꺼낸 개수를 반환한다.
+     */
+    public int popInto(long[] dst, int offset, int length) {
+        checkRange(dst.length, offset, length);
+        int count = Math.min(length, size);
+        for (int i = 0; i < count; i++) {
+            dst[offset + i] = elements[size - 1 - i];
+        }
+        size -= count;
+        shrinkIfNeeded();
+        return count;
+    }
+
+    public void clear() {
+        size = 0;
+        shrinkIfNeeded();
+    }
+}
@@ -0,0 +1,97 @@
+package chap02.item07;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/*
+Item07Test.Stack 의 메모리 누수를 고친 범용 스택.
+
+pop 으로 꺼낸 칸은 null 로 지워 다 쓴 참조(obsolete reference)를 남기지 않는다.
+스택이 자기 메모리를 직접 관리하는 클래스이기 때문에, 어떤 원소가 비활성 영역에 있는지는 스택만 알 수 있다.
+그러므로 비활성 영역이 되는 순간 스택이 직접 참조를 해제해야 한다.
+
+이 클래스는 스레드 안전하지 않다.
+ */
+public class ObjectStack<E> extends AbstractArrayStack {
+
+    private Object[] elements;
+
+    public ObjectStack() {
+        this(DEFAULT_INITIAL_CAPACITY, false);
+    }
+
+    public ObjectStack(int initialCapacity) {
+        this(initialCapacity, false);
+    }
+
+    public ObjectStack(int initialCapacity, boolean shrinkable) {
+        super(initialCapacity, shrinkable);
+        elements = new Object[initialCapacity];
+    }
+
+    @Override
+    int capacity() {
+        return elements.length;
+    }
+
+    @Override
+    void resize(int newCapacity) {
+        elements = Arrays.copyOf(elements, newCapacity);
+    }
+
+    public void push(E e) {
+        ensureCapacity(size + 1);
+        elements[size++] = e;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        E result = (E) elements[--size];
+        elements[size] = null; // 다 쓴 참조 해제
+        shrinkIfNeeded();
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return (E) elements[size - 1];
+    }
+
+    /*
+    src[offset] 부터 순서대로 push 한다. 마지막 원소가 스택의 맨 위가 된다.
+     */
+    public void pushAll(E[] src, int offset, int length) {
+        checkRange(src.length, offset, length);
+        ensureCapacity(size + length);
+        System.arraycopy(src, offset, elements, size, length);
+        size += length;
+    }
+
+    /*
+    최대 length 개를 pop 해서 dst[offset] 부터 꺼낸 순서대로 담고, 실제로 꺼낸 개수를 반환한다.
+     */
+    @SuppressWarnings("unchecked")
+    public int popInto(E[] dst, int offset, int length) {
+        checkRange(dst.length, offset, length);
+        int count = Math.min(length, size);
+        for (int i = 0; i < count; i++) {
+            dst[offset + i] = (E) elements[size - 1 - i];
+        }
+        Arrays.fill(elements, size - count, size, null);
+        size -= count;
+        shrinkIfNeeded();
+        return count;
+    }
+
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+        shrinkIfNeeded();
+    }
+}
@@ -0,0 +1,69 @@
+package chap02.item07;
+
+/*
+ConcurrentStack 여러 개(stripe)에 스레드를 나누어 맨 위 노드에 몰리는 경합을 줄인 스택.
+
+- push 는 스레드마다 정해진 stripe 에 넣는다.
+- pop 은 자기 stripe 에서 먼저 꺼내고, 비어 있으면 다른 stripe 를 차례로 훑어 가져온다(work stealing).
+- 같은 스레드가 넣은 원소들 사이에서는 LIFO 순서가 유지되지만, 스택 전체의 LIFO 순서는 보장하지 않는다.
+  순서보다 처리량이 중요한 작업 큐 용도로 사용한다.
+- pop 은 모든 stripe 가 비어 있다고 본 순간에만 null 을 반환한다.
+ */
+public class StripedConcurrentStack<E> {
+
+    private final ConcurrentStack<E>[] stripes;
+    private final int mask;
+
+    public StripedConcurrentStack() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public StripedConcurrentStack(int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("stripeCount: " + stripeCount);
+        }
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        // ConcurrentStack<?>[] 에는 ConcurrentStack<E> 만 넣으므로 형변환은 안전하다.
+        @SuppressWarnings("unchecked")
+        ConcurrentStack<E>[] created = (ConcurrentStack<E>[]) new ConcurrentStack<?>[size];
+        for (int i = 0; i < size; i++) {
+            // stripe 마다 경합이 적으므로 elimination 배열은 작게 둔다.
+            created[i] = new ConcurrentStack<>(2);
+        }
+        stripes = created;
+        mask = size - 1;
+    }
+
+    private int home() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id * 0x9E3779B97F4A7C15L >>> 32);
+        return h & mask;
+    }
+
+    public void push(E e) {
+        stripes[home()].push(e);
+    }
+
+    public E pop() {
+        int home = home();
+        for (int i = 0; i < stripes.length; i++) {
+            E e = stripes[(home + i) & mask].pop();
+            if (e != null) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    public boolean isEmpty() {
+        for (ConcurrentStack<E> stripe : stripes) {
+            if (!stripe.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,181 @@
+package chap02.item09;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+파일 복사 유틸리티.
+
+- 파일 간 복사는 FileChannel.transferTo 를 사용한다. 운영체제가 지원하면 커널 안에서 바로 복사되어(zero-copy)
+  사용자 영역 버퍼를 거치지 않는다.
+- transferTo 가 더 이상 진행하지 못하거나 채널이 파일이 아닌 경우에는 재사용하는 direct ByteBuffer 로 읽고 쓴다.
+- 모든 자원은 try-with-resources 로 닫는다. 복사 중 예외가 나고 close 에서도 예외가 나면
+  close 의 예외는 처음 예외의 suppressed 예외로 남는다.
+ */
+public final class FileCopier {
+
+    /*
+    total 은 복사할 전체 바이트 수다. 스트림처럼 끝까지 읽기 전에는 크기를 알 수 없으면 UNKNOWN_TOTAL(-1) 이 넘어온다.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        long UNKNOWN_TOTAL = -1L;
+
+        void onProgress(long copied, long total);
+    }
+
+    private static final ProgressListener NO_PROGRESS = (copied, total) -> {
+    };
+
+    // transferTo 한 번에 넘기는 최대 크기. 진행 상황 콜백의 간격이기도 하다.
+    private static final long TRANSFER_CHUNK_SIZE = 8L << 20;
+
+    private FileCopier() {
+    }
+
+    public static long copy(Path source, Path target) throws IOException {
+        return copy(source, 0, Long.MAX_VALUE, target, NO_PROGRESS);
+    }
+
+    public static long copy(Path source, Path target, ProgressListener listener) throws IOException {
+        return copy(source, 0, Long.MAX_VALUE, target, listener);
+    }
+
+    /*
+    source 의 [position, position + count) 구간을 target 에 복사하고 실제로 복사한 바이트 수를 반환한다.
+    source 가 구간보다 짧으면 파일 끝까지만 복사한다. target 은 새로 만들거나 비운 뒤에 쓴다.
+     */
+    public static long copy(Path source, long position, long count, Path target, ProgressListener listener)
+        throws IOException {
+        if (position < 0 || count < 0) {
+            throw new IllegalArgumentException("position: " + position + ", count: " + count);
+        }
+        if (Files.exists(target) && Files.isSameFile(source, target)) {
+            throw new IllegalArgumentException("source and target are the same file: " + source);
+        }
+
+        // source 를 먼저 열어야 source 가 없을 때 target 파일이 만들어지지 않는다.
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                 StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long total = Math.max(0, Math.min(count, in.size() - position));
+            return transfer(in, position, total, out, listener);
+        }
+    }
+
+    /*
+    스트림 간 복사. 스트림은 호출한 쪽에서 닫는다.
+    스트림의 길이는 미리 알 수 없으므로 listener 에는 total 로 UNKNOWN_TOTAL 을 넘긴다.
+     */
+    public static long copy(InputStream in, OutputStream out, ProgressListener listener) throws IOException {
+        return copy(Channels.newChannel(in), Channels.newChannel(out), Long.MAX_VALUE, listener);
+    }
+
+    /*
+    채널 간 복사. 최대 count 바이트를 복사하며, 채널은 호출한 쪽에서 닫는다.
+     */
+    public static long copy(ReadableByteChannel in, WritableByteChannel out, long count,
+        ProgressListener listener) throws IOException {
+        if (in instanceof FileChannel) {
+            FileChannel file = (FileChannel) in;
+            long position = file.position();
+            long total = Math.max(0, Math.min(count, file.size() - position));
+            long copied = transfer(file, position, total, out, listener);
+            file.position(position + copied);
+            return copied;
+        }
+        return copyWithBuffer(in, out, 0, count, listener);
+    }
+
+    private static long transfer(FileChannel in, long position, long total, WritableByteChannel out,
+        ProgressListener listener) throws IOException {
+        long copied = 0;
+        while (copied < total) {
+            long transferred = in.transferTo(position + copied, Math.min(TRANSFER_CHUNK_SIZE, total - copied), out);
+            if (transferred <= 0) {
+                // 진행하지 못하면 버퍼 복사로 나머지를 처리한다.
+                in.position(position + copied);
+                return copied + copyWithBuffer(in, out, copied, total, listener);
+            }
+            copied += transferred;
+            listener.onProgress(copied, total);
+        }
+        return copied;
+    }
+
+    /*
+    alreadyCopied 는 진행 상황을 이어서 알리기 위한 값이고, 이 메서드가 복사한 바이트 수만 반환한다.
+    total 이 Long.MAX_VALUE 이면 끝까지 읽으라는 뜻이므로 listener 에는 UNKNOWN_TOTAL 로 알린다.
+     */
+    static long copyWithBuffer(ReadableByteChannel in, WritableByteChannel out, long alreadyCopied, long total,
+        ProgressListener listener) throws IOException {
+        long reportedTotal = total == Long.MAX_VALUE ? ProgressListener.UNKNOWN_TOTAL : total;
+        ByteBuffer buffer = BufferPool.acquire();
+        try {
+            long copied = 0;
+            long remaining = total - alreadyCopied;
+            while (remaining > 0) {
+                buffer.clear();
+                if (remaining < buffer.capacity()) {
+                    buffer.limit((int) remaining);
+                }
+                int read = in.read(buffer);
+                if (read < 0) {
+                    break;
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                copied += read;
+                remaining -= read;
+                listener.onProgress(alreadyCopied + copied, reportedTotal);
+            }
+            return copied;
+        } finally {
+            BufferPool.release(buffer);
+        }
+    }
+
+    /*
+    direct 버퍼는 할당과 해제 비용이 크므로 몇 개를 만들어 두고 돌려 쓴다.
+    풀이 가득 차면 반납된 버퍼는 그냥 버려져 GC 대상이 된다.
+     */
+    private static final class BufferPool {
+
+        private static final int BUFFER_SIZE = 256 * 1024;
+        private static final int MAX_POOLED = 8;
+
+        private static final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+        private static final AtomicInteger pooled = new AtomicInteger();
+
+        static ByteBuffer acquire() {
+            ByteBuffer buffer = buffers.poll();
+            if (buffer == null) {
+                return ByteBuffer.allocateDirect(BUFFER_SIZE);
+            }
+            pooled.decrementAndGet();
+            return buffer;
+        }
+
+        static void release(ByteBuffer buffer) {
+            if (pooled.incrementAndGet() <= MAX_POOLED) {
+                buffers.offer(buffer);
+            } else {
+                pooled.decrementAndGet();
+            }
+        }
+    }
+}
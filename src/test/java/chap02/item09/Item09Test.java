@@ -1,17 +1,26 @@
 package chap02.item09;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.BufferedReader;
-import java.io.FileInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
 
 /*
 아이템 9 - try-finally 보다는 try-with-resources 를 사용하라.
@@ -23,11 +32,18 @@ try-with-resources로는 정확하고 쉽게 자원을 회수할 수 있다.
  */
 public class Item09Test {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /*
+    FileCopier 도 내부에서 두 채널을 try-with-resources 로 연다.
+    복사할 파일이 없으면 대상 파일을 만들기 전에 NoSuchFileException 이 발생한다.
+     */
     private static boolean copy() throws IOException {
-        try (InputStream in = new FileInputStream("path");
-             OutputStream out = new FileOutputStream("path")) {
+        try {
+            FileCopier.copy(Paths.get("path"), Paths.get("path.copy"));
             return true;
-        } catch (FileNotFoundException e) {
+        } catch (NoSuchFileException e) {
             e.printStackTrace();
             return false;
         }
@@ -43,5 +59,131 @@ public class Item09Test {
     @Test
     public void tryWithTwoResources() throws IOException {
         assertThat(copy()).isFalse();
+        assertThat(Files.exists(Paths.get("path.copy"))).isFalse();
+    }
+
+    @Test
+    public void 파일_복사() throws IOException {
+        byte[] content = new byte[3 * 1024 * 1024 + 17];
+        new Random(9).nextBytes(content);
+        Path source = temporaryFolder.newFile("source").toPath();
+        Path target = temporaryFolder.getRoot().toPath().resolve("target");
+        Files.write(source, content);
+
+        List<Long> progress = new ArrayList<>();
+        long copied = FileCopier.copy(source, target, (done, total) -> progress.add(done));
+
+        assertThat(copied).isEqualTo(content.length);
+        assertThat(Files.readAllBytes(target)).isEqualTo(content);
+        assertThat(progress).isSorted().endsWith((long) content.length);
+    }
+
+    @Test
+    public void 파일_일부_구간_복사() throws IOException {
+        Path source = temporaryFolder.newFile("source").toPath();
+        Path target = temporaryFolder.getRoot().toPath().resolve("target");
+        Files.write(source, "0123456789".getBytes());
+
+        assertThat(FileCopier.copy(source, 3, 4, target, (done, total) -> {
+        })).isEqualTo(4);
+        assertThat(new String(Files.readAllBytes(target))).isEqualTo("3456");
+
+        // 파일 끝을 넘는 구간은 끝까지만 복사한다.
+        assertThat(FileCopier.copy(source, 8, 100, target, (done, total) -> {
+        })).isEqualTo(2);
+        assertThat(new String(Files.readAllBytes(target))).isEqualTo("89");
+    }
+
+    @Test
+    public void 스트림_복사() throws IOException {
+        byte[] content = new byte[600 * 1024];
+        new Random(9).nextBytes(content);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<Long> totals = new ArrayList<>();
+
+        long copied = FileCopier.copy(new ByteArrayInputStream(content), out, (done, total) -> totals.add(total));
+
+        assertThat(copied).isEqualTo(content.length);
+        assertThat(out.toByteArray()).isEqualTo(content);
+        // 스트림은 길이를 미리 알 수 없으므로 전체 크기는 알 수 없음으로 알린다.
+        assertThat(totals).isNotEmpty().containsOnly(FileCopier.ProgressListener.UNKNOWN_TOTAL);
+    }
+
+    @Test(expected = NoSuchFileException.class)
+    public void lineCursor() throws IOException {
+        try (LineCursor cursor = LineCursor.open(Paths.get("/test"))) {
+            cursor.next();
+        }
+    }
+
+    /*
+    LineCursor 는 줄마다 String 을 만들지 않고 같은 CharSequence 뷰를 다음 줄로 옮긴다.
+     */
+    @Test
+    public void lineCursor_줄_읽기() throws IOException {
+        StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            longLine.append("긴 줄 ").append(i);
+        }
+        Path file = temporaryFolder.newFile("lines.txt").toPath();
+        String content = "first\r\n아이템 9\n\n" + longLine + "\nlast";
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+
+        List<String> lines = new ArrayList<>();
+        List<Boolean> asciiFlags = new ArrayList<>();
+        // 버퍼를 일부러 작게 잡아 버퍼 경계에 걸친 줄과 버퍼보다 긴 줄을 만든다.
+        try (LineCursor cursor = new LineCursor(Files.newByteChannel(file), StandardCharsets.UTF_8, 16)) {
+            while (cursor.next()) {
+                lines.add(cursor.line().toString());
+                asciiFlags.add(cursor.isAscii());
+                assertThat(cursor.bytes().remaining())
+                    .isEqualTo(cursor.line().toString().getBytes(StandardCharsets.UTF_8).length);
+            }
+        }
+
+        assertThat(lines).containsExactly("first", "아이템 9", "", longLine.toString(), "last");
+        assertThat(asciiFlags).containsExactly(true, false, true, false, true);
+    }
+
+    @Test
+    public void lineCursor_뷰_재사용() throws IOException {
+        Path file = temporaryFolder.newFile("lines.txt").toPath();
+        Files.write(file, "ab\ncd\n".getBytes(StandardCharsets.US_ASCII));
+
+        try (LineCursor cursor = LineCursor.open(file, StandardCharsets.US_ASCII)) {
+            assertThat(cursor.next()).isTrue();
+            CharSequence line = cursor.line();
+            assertThat(line.charAt(1)).isEqualTo('b');
+
+            assertThat(cursor.next()).isTrue();
+            assertThat(cursor.line()).isSameAs(line);
+            assertThat(line.toString()).isEqualTo("cd");
+            assertThat(cursor.lineNumber()).isEqualTo(2);
+            assertThat(cursor.next()).isFalse();
+        }
+    }
+
+    /*
+    source 를 먼저 열기 때문에 원본이 없으면 예외가 나고 대상 파일은 만들어지지 않는다.
+     */
+    @Test
+    public void 원본이_없으면_대상_파일을_만들지_않는다() throws IOException {
+        Path source = temporaryFolder.getRoot().toPath().resolve("missing.bin");
+        Path target = temporaryFolder.getRoot().toPath().resolve("missing.copy");
+
+        try {
+            FileCopier.copy(source, target);
+            fail();
+        } catch (NoSuchFileException e) {
+            assertThat(Files.exists(target)).isFalse();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void 같은_파일로는_복사하지_않는다() throws IOException {
+        Path file = temporaryFolder.newFile("same.bin").toPath();
+        Files.write(file, new byte[]{1, 2, 3});
+
+        FileCopier.copy(file, file);
     }
 }
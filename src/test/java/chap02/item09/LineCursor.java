@@ -0,0 +1,235 @@
+package chap02.item09;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+BufferedReader.readLine 대신 쓸 수 있는 줄 단위 커서.
+
+BufferedReader 는 줄마다 String 을 하나씩 만들고, 모든 바이트를 CharsetDecoder 로 디코딩한다.
+LineCursor 는 큰 direct 버퍼에 파일을 읽어 두고, 현재 줄을 가리키는 재사용 뷰만 바꿔가며 돌려준다.
+
+- line() 은 현재 줄의 CharSequence 뷰, bytes() 는 현재 줄의 바이트 뷰다. 둘 다 next() 를 다시 호출하면 내용이 바뀐다.
+  값을 보관하려면 line().toString() 으로 복사해야 한다.
+- ASCII 로만 이루어진 줄(ISO-8859-1 은 모든 줄)은 디코딩 없이 바이트를 그대로 문자로 읽는다.
+- 그 밖의 줄만 재사용하는 CharsetDecoder 로 디코딩한다. US-ASCII 의 범위를 벗어난 바이트는 대체 문자가 된다.
+- UTF-8, US-ASCII, ISO-8859-1 만 지원한다.
+- 줄 끝은 '\n' 이고, 그 앞의 '\r' 은 줄에 포함하지 않는다.
+
+AutoCloseable 을 구현하므로 try-with-resources 로 연다.
+ */
+public final class LineCursor implements AutoCloseable {
+
+    static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private final ReadableByteChannel channel;
+    private final Charset charset;
+    private final CharsetDecoder decoder;
+    private final LineView view = new LineView();
+
+    private ByteBuffer buffer;
+    private ByteBuffer lineBytes;
+    private CharBuffer decoded = CharBuffer.allocate(256);
+
+    private int lineStart;
+    private int lineLength;
+    private int nextStart;
+    private boolean ascii;
+    private boolean direct;
+    private boolean eof;
+    private long lineNumber;
+
+    LineCursor(ReadableByteChannel channel, Charset charset, int bufferSize) {
+        if (!charset.equals(StandardCharsets.UTF_8)
+            && !charset.equals(StandardCharsets.US_ASCII)
+            && !charset.equals(StandardCharsets.ISO_8859_1)) {
+            throw new IllegalArgumentException("unsupported charset: " + charset);
+        }
+        this.channel = channel;
+        this.charset = charset;
+        this.decoder = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        allocate(bufferSize);
+        buffer.limit(0);
+    }
+
+    public static LineCursor open(Path path) throws IOException {
+        return open(path, StandardCharsets.UTF_8);
+    }
+
+    public static LineCursor open(Path path, Charset charset) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new LineCursor(channel, charset, DEFAULT_BUFFER_SIZE);
+        } catch (RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void allocate(int capacity) {
+        ByteBuffer newBuffer = ByteBuffer.allocateDirect(capacity);
+        if (buffer != null) {
+            buffer.position(0);
+            newBuffer.put(buffer);
+            newBuffer.flip();
+        }
+        buffer = newBuffer;
+        lineBytes = buffer.asReadOnlyBuffer();
+    }
+
+    /*
+    다음 줄로 이동한다. 더 읽을 줄이 없으면 false 를 반환한다.
+     */
+    public boolean next() throws IOException {
+        int scan = nextStart;
+        int bits = 0;
+        while (true) {
+            int limit = buffer.limit();
+            for (; scan < limit; scan++) {
+                byte b = buffer.get(scan);
+                if (b == '\n') {
+                    setLine(nextStart, scan, bits);
+                    nextStart = scan + 1;
+                    return true;
+                }
+                bits |= b;
+            }
+
+            if (eof) {
+                if (nextStart == limit) {
+                    lineLength = 0;
+                    return false;
+                }
+                setLine(nextStart, limit, bits);
+                nextStart = limit;
+                return true;
+            }
+
+            // 줄이 버퍼 끝에 걸쳐 있으면 남은 부분을 앞으로 옮기고, 버퍼가 가득 찼으면 두 배로 키운다.
+            int consumed = nextStart;
+            if (consumed > 0) {
+                buffer.position(consumed);
+                buffer.compact();
+                buffer.flip();
+                scan -= consumed;
+                nextStart = 0;
+            }
+            if (buffer.limit() == buffer.capacity()) {
+                allocate(buffer.capacity() * 2);
+            }
+            fill();
+        }
+    }
+
+    private void fill() throws IOException {
+        int limit = buffer.limit();
+        buffer.position(limit);
+        buffer.limit(buffer.capacity());
+        int read = channel.read(buffer);
+        buffer.limit(read < 0 ? limit : limit + read);
+        if (read < 0) {
+            eof = true;
+        }
+    }
+
+    private void setLine(int start, int end, int bits) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        lineStart = start;
+        lineLength = end - start;
+        ascii = bits >= 0;
+        // ISO-8859-1 은 바이트 값이 곧 문자 코드이므로 ASCII 가 아니어도 디코딩할 필요가 없다.
+        direct = ascii || charset.equals(StandardCharsets.ISO_8859_1);
+        lineNumber++;
+        if (!direct) {
+            decode();
+        }
+    }
+
+    private void decode() {
+        ByteBuffer in = lineBytes;
+        in.limit(lineStart + lineLength).position(lineStart);
+        if (decoded.capacity() < lineLength) {
+            decoded = CharBuffer.allocate(Math.max(lineLength, decoded.capacity() * 2));
+        }
+        decoded.clear();
+        decoder.reset();
+        decoder.decode(in, decoded, true);
+        decoder.flush(decoded);
+        decoded.flip();
+    }
+
+    /*
+    현재 줄의 문자 뷰. next() 를 호출할 때마다 같은 인스턴스가 다음 줄을 가리킨다.
+     */
+    public CharSequence line() {
+        return view;
+    }
+
+    /*
+    현재 줄의 바이트를 가리키는 읽기 전용 버퍼. position 부터 limit 까지가 현재 줄이다.
+     */
+    public ByteBuffer bytes() {
+        lineBytes.limit(lineStart + lineLength).position(lineStart);
+        return lineBytes;
+    }
+
+    public boolean isAscii() {
+        return ascii;
+    }
+
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private final class LineView implements CharSequence {
+
+        @Override
+        public int length() {
+            return direct ? lineLength : decoded.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length()) {
+                throw new IndexOutOfBoundsException("index: " + index);
+            }
+            if (direct) {
+                return (char) (buffer.get(lineStart + index) & 0xff);
+            }
+            return decoded.get(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            if (!direct) {
+                return decoded.toString();
+            }
+            byte[] bytes = new byte[lineLength];
+            bytes().get(bytes);
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -3,7 +3,10 @@ package chap03.item11;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 
+import chap03.item12.PackedPhoneNumber;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import org.junit.Test;
@@ -104,6 +107,56 @@ public class Item11Test {
         assertNotEquals(map.get(new PhoneNumber(707, 867, 5307)), "제니");
     }
 
+    /*
+    불변 객체라면 해시코드를 캐싱할 수 있다. PackedPhoneNumber 는 String 처럼 처음 호출될 때 계산해 둔다.
+     */
+    @Test
+    public void hashcode_캐싱() {
+        HashMap<PackedPhoneNumber, String> map = new HashMap<>();
+        PackedPhoneNumber key = PackedPhoneNumber.of(707, 867, 5307);
+        map.put(key, "제니");
+
+        assertEquals(key.hashCode(), key.hashCode());
+        assertEquals(map.get(PackedPhoneNumber.parse("707-867-5307")), "제니");
+    }
+
+    /*
+    키를 long 으로 바로 저장하면 키 객체와 엔트리 노드를 만들지 않아도 된다.
+     */
+    @Test
+    public void 전화번호_전용_맵() {
+        PhoneNumberMap<String> map = new PhoneNumberMap<>();
+        map.put(PackedPhoneNumber.of(707, 867, 5307), "제니");
+
+        assertEquals(map.get(PackedPhoneNumber.parse("707-867-5307")), "제니");
+        assertEquals(map.put(PackedPhoneNumber.of(707, 867, 5307), "제니2"), "제니");
+        assertEquals(map.size(), 1);
+        assertEquals(map.remove(PackedPhoneNumber.of(707, 867, 5307)), "제니2");
+        assertEquals(map.get(PackedPhoneNumber.of(707, 867, 5307)), null);
+        assertEquals(map.size(), 0);
+    }
+
+    @Test
+    public void 전화번호_전용_맵_무작위_검증() {
+        PhoneNumberMap<Integer> map = new PhoneNumberMap<>(4, 0.75f);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(11);
+
+        // 키의 범위를 좁혀 충돌, 재해싱, 삭제 후 당겨오기가 자주 일어나게 한다.
+        for (int i = 0; i < 200_000; i++) {
+            long key = PackedPhoneNumber.of(random.nextInt(4), 0, random.nextInt(2000)).toPackedLong();
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+        map.forEach((key, value) -> assertEquals(expected.get(key), value));
+    }
+
     @NoArgsConstructor
     @AllArgsConstructor
     public static class PhoneNumber {
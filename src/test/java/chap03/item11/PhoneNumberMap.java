@@ -0,0 +1,233 @@
+package chap03.item11;
+
+import chap03.item12.PackedPhoneNumber;
+import java.util.Arrays;
+import java.util.Objects;
+
+/*
+전화번호(PackedPhoneNumber 의 long 값)를 키로 쓰는 개방 주소법(open addressing) 해시 맵.
+
+HashMap<ExtendedPhoneNumber, String> 은 키 객체와 엔트리마다 Node 를 하나씩 할당한다.
+PhoneNumberMap 은 키를 long[] 에, 값을 Object[] 에 같은 인덱스로 저장하므로 엔트리당 추가 할당이 없다.
+
+- 충돌은 선형 탐사(linear probing)로 해결한다.
+- 원소 수가 capacity * loadFactor 를 넘으면 두 배 크기로 재해싱한다.
+- 삭제할 때는 툼스톤(tombstone)을 남기지 않고 뒤따르는 엔트리를 빈 칸으로 당겨온다(backward shift).
+  그래서 삭제가 많아도 탐사 길이가 늘어나지 않는다.
+
+packed 값은 항상 0 이상이므로 -1 을 빈 칸 표시로 쓴다. null 값은 허용하지 않는다.
+이 클래스는 스레드 안전하지 않다.
+ */
+public class PhoneNumberMap<V> {
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long phoneNumber, V value);
+    }
+
+    private static final long EMPTY = -1L;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    private final float loadFactor;
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int resizeThreshold;
+    private int size;
+
+    public PhoneNumberMap() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    public PhoneNumberMap(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    public PhoneNumberMap(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize: " + expectedSize);
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("loadFactor: " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        allocate(capacityFor(expectedSize, loadFactor));
+    }
+
+    private static int capacityFor(int expectedSize, float loadFactor) {
+        long required = Math.max(2, (long) Math.ceil(expectedSize / (double) loadFactor));
+        if (required > MAXIMUM_CAPACITY) {
+            return MAXIMUM_CAPACITY;
+        }
+        return Integer.highestOneBit((int) required - 1) << 1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = Math.min(capacity - 1, (int) (capacity * loadFactor));
+    }
+
+    /*
+    packed 값의 하위 비트는 lineNum 이라 비교적 고르지만, 상위 필드까지 섞기 위해 황금비 상수를 곱한다.
+     */
+    private int indexOf(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private int slotOf(long key) {
+        for (int i = indexOf(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                return i;
+            }
+            if (k == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long phoneNumber) {
+        return phoneNumber >= 0 && slotOf(phoneNumber) >= 0;
+    }
+
+    public boolean containsKey(PackedPhoneNumber phoneNumber) {
+        return containsKey(phoneNumber.toPackedLong());
+    }
+
+    public V get(long phoneNumber) {
+        return getOrDefault(phoneNumber, null);
+    }
+
+    public V get(PackedPhoneNumber phoneNumber) {
+        return get(phoneNumber.toPackedLong());
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(long phoneNumber, V defaultValue) {
+        if (phoneNumber < 0) {
+            return defaultValue;
+        }
+        int slot = slotOf(phoneNumber);
+        return slot < 0 ? defaultValue : (V) values[slot];
+    }
+
+    /*
+    이전 값을 반환하고, 새로 추가된 키라면 null 을 반환한다.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long phoneNumber, V value) {
+        if (phoneNumber < 0) {
+            throw new IllegalArgumentException("phoneNumber: " + phoneNumber);
+        }
+        Objects.requireNonNull(value, "value");
+
+        int i = indexOf(phoneNumber);
+        for (long k = keys[i]; k != EMPTY; k = keys[i]) {
+            if (k == phoneNumber) {
+                V previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = phoneNumber;
+        values[i] = value;
+        if (++size > resizeThreshold) {
+            resize();
+        }
+        return null;
+    }
+
+    public V put(PackedPhoneNumber phoneNumber, V value) {
+        return put(phoneNumber.toPackedLong(), value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long phoneNumber) {
+        if (phoneNumber < 0) {
+            return null;
+        }
+        int slot = slotOf(phoneNumber);
+        if (slot < 0) {
+            return null;
+        }
+
+        V previous = (V) values[slot];
+        shiftBackward(slot);
+        size--;
+        return previous;
+    }
+
+    public V remove(PackedPhoneNumber phoneNumber) {
+        return remove(phoneNumber.toPackedLong());
+    }
+
+    /*
+    비워진 칸(gap) 뒤로 이어지는 엔트리 중, 원래 위치(home)에서 gap 까지의 탐사 경로에 gap 이 포함된 엔트리를 당겨온다.
+    빈 칸을 만날 때까지 반복하면 모든 엔트리가 여전히 home 에서부터 빈 칸 없이 탐사 가능한 위치에 남는다.
+     */
+    private void shiftBackward(int gap) {
+        for (int i = (gap + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            int home = indexOf(keys[i]);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = EMPTY;
+        values[gap] = null;
+    }
+
+    private void resize() {
+        if (keys.length == MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("PhoneNumberMap is full: " + size);
+        }
+
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int j = 0; j < oldKeys.length; j++) {
+            long key = oldKeys[j];
+            if (key != EMPTY) {
+                int i = indexOf(key);
+                while (keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        Objects.requireNonNull(action);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                action.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package chap03.item12;
+
+/*
+EvictionPolicy 구현이 함께 쓰는 이중 연결 리스트. head 쪽이 가장 최근에 쓴 키다.
+노드를 직접 들고 있으므로 이동, 삭제가 O(1) 이다.
+ */
+final class AccessOrderList {
+
+    static final class Node {
+
+        final long key;
+        int queue;
+        Node prev;
+        Node next;
+
+        Node(long key) {
+            this.key = key;
+        }
+    }
+
+    private final Node sentinel = new Node(EvictionPolicy.NO_KEY);
+    private int size;
+
+    AccessOrderList() {
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void addFirst(Node node) {
+        node.prev = sentinel;
+        node.next = sentinel.next;
+        sentinel.next.prev = node;
+        sentinel.next = node;
+        size++;
+    }
+
+    void moveToFirst(Node node) {
+        remove(node);
+        addFirst(node);
+    }
+
+    void remove(Node node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        size--;
+    }
+
+    /*
+    가장 오래 쓰지 않은 노드. 비어 있으면 null
+     */
+    Node last() {
+        return size == 0 ? null : sentinel.prev;
+    }
+}
@@ -0,0 +1,45 @@
+package chap03.item12;
+
+/*
+PhoneNumberCache 가 가득 찼을 때 어떤 전화번호를 내보낼지 정하는 정책.
+
+캐시는 세그먼트마다 newPolicy(capacity) 로 정책 인스턴스를 하나씩 만들고, 세그먼트 잠금을 잡은 채로 호출한다.
+그래서 정책 구현은 스레드 안전할 필요가 없다. 키는 PhoneNumberParser.pack 으로 압축한 0 이상의 long 이다.
+
+- lru() : 가장 오래 쓰지 않은 번호를 내보낸다.
+- tinyLfu() : W-TinyLFU. 새 번호는 작은 LRU 창(window)에 먼저 들어가고, 창에서 밀려날 때
+  본 캐시에서 내보낼 후보보다 최근 사용 빈도가 높아야만 본 캐시에 들어간다.
+  소수의 번호가 대부분의 호출을 차지하는 부하에서 한 번 쓰고 마는 번호들이 자주 쓰는 번호를 밀어내지 않는다.
+ */
+public interface EvictionPolicy {
+
+    long NO_KEY = -1L;
+
+    Policy newPolicy(int capacity);
+
+    interface Policy {
+
+        /*
+        캐시에 있던 key 를 다시 썼다.
+         */
+        void onHit(long key);
+
+        /*
+        캐시에 없던 key 를 넣으려 한다. 용량을 넘으면 내보낼 key 를 돌려주고 (key 자신이면 넣지 않는다), 아니면 NO_KEY.
+         */
+        long onMiss(long key);
+
+        /*
+        캐시에 있던 key 를 내보내지 않고 지웠다. (PhoneNumberCache.invalidate)
+         */
+        void onRemove(long key);
+    }
+
+    static EvictionPolicy lru() {
+        return LruEvictionPolicy::new;
+    }
+
+    static EvictionPolicy tinyLfu() {
+        return TinyLfuEvictionPolicy::new;
+    }
+}
@@ -0,0 +1,64 @@
+package chap03.item12;
+
+/*
+TinyLFU 가 쓰는 count-min sketch. 키마다 정확한 횟수 대신 4 개 행의 카운터 중 가장 작은 값으로 사용 빈도를 어림한다.
+
+카운터는 15 에서 멈추고, 증가가 sampleSize 번 쌓이면 모든 카운터를 절반으로 줄인다.
+오래전에 많이 쓰인 번호보다 최근에 많이 쓰인 번호가 높은 빈도를 갖게 된다.
+ */
+final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final long[] SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final byte[][] counters;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int capacity) {
+        int width = Integer.highestOneBit(Math.max(16, capacity) * 2 - 1);
+        this.counters = new byte[DEPTH][width];
+        this.mask = width - 1;
+        this.sampleSize = 10 * Math.max(16, capacity);
+    }
+
+    int frequency(long key) {
+        int min = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, counters[row][index(key, row)]);
+        }
+        return min;
+    }
+
+    void increment(long key) {
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            int i = index(key, row);
+            if (counters[row][i] < MAX_COUNT) {
+                counters[row][i]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (byte[] row : counters) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>>= 1;
+            }
+        }
+        additions >>>= 1;
+    }
+
+    private int index(long key, int row) {
+        long h = (key + SEEDS[row]) * SEEDS[row];
+        return (int) (h >>> 32) & mask;
+    }
+}
@@ -1,16 +1,35 @@
 package chap03.item12;
 
+import common.MemoryProbe;
 import common.TestDescription;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 import java.util.UnknownFormatConversionException;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
 
 /*
 Item 12. toString을 항상 재정의하라
@@ -45,6 +64,9 @@ toString의 규약은 '모든 하위클래스에서 이 메서드를 재정의
  */
 public class Item12Test {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     @TestDescription("toString 테스트")
     public void toString_테스트() {
@@ -62,6 +84,182 @@ public class Item12Test {
         assertEquals(PhoneNumber.parse(phoneNumber), new PhoneNumber(123, 123, 1111));
     }
 
+    @Test
+    @TestDescription("char[], byte[] 의 일부 구간도 중간 문자열 없이 파싱할 수 있다.")
+    public void 배열_구간_파싱_테스트() {
+        char[] chars = "tel:707-867-5309;".toCharArray();
+        byte[] bytes = "tel:707-867-5309;".getBytes(StandardCharsets.US_ASCII);
+
+        assertEquals(PhoneNumber.parse(chars, 4, 12), new PhoneNumber(707, 867, 5309));
+        assertEquals(PhoneNumber.parse(bytes, 4, 12), new PhoneNumber(707, 867, 5309));
+        assertEquals(PhoneNumber.parse(new StringBuilder("010-000-0001")), new PhoneNumber(10, 0, 1));
+    }
+
+    @Test
+    @TestDescription("ddd-ddd-dddd 형식이 아니면 INVALID 를 반환한다.")
+    public void 형식_검증_테스트() {
+        String[] invalids = {"", "123-123-111", "123-123-11111", "123 123 1111", "12a-123-1111",
+            "123-123-1111\n", "１23-123-1111", "123--23-1111", "+12-123-1111"};
+
+        for (String invalid : invalids) {
+            assertEquals(invalid, PhoneNumberParser.INVALID, PhoneNumberParser.parse(invalid));
+        }
+    }
+
+    @Test
+    @TestDescription("PhoneNumberParser 는 파싱하는 동안 객체를 할당하지 않는다.")
+    public void 파싱_할당량_테스트() {
+        assumeTrue(MemoryProbe.isAllocationMeasurementSupported());
+        byte[] bytes = "707-867-5309".getBytes(StandardCharsets.US_ASCII);
+        char[] chars = "707-867-5309".toCharArray();
+        long[] sink = new long[1];
+
+        double bytesPerParse = MemoryProbe.allocatedBytesPerOperation(100_000, i -> {
+            sink[0] += PhoneNumberParser.parse(bytes, 0, bytes.length);
+            sink[0] += PhoneNumberParser.parse(chars, 0, chars.length);
+        });
+
+        assertTrue("allocated bytes per parse: " + bytesPerParse, bytesPerParse < 1.0);
+    }
+
+    @Test(expected = UnknownFormatConversionException.class)
+    @TestDescription("바이트 입력도 형식 오류이면 UnknownFormatConversionException 을 던진다.")
+    public void 바이트_파싱_오류_테스트() {
+        byte[] bytes = "123-12x-1111".getBytes(StandardCharsets.US_ASCII);
+        PhoneNumber.parse(bytes, 0, bytes.length);
+    }
+
+    @Test
+    @TestDescription("PackedPhoneNumber 는 long 하나로 PhoneNumber 와 같은 값을 표현한다.")
+    public void packedPhoneNumber_테스트() {
+        PackedPhoneNumber packed = PackedPhoneNumber.parse("010-020-0304");
+
+        assertEquals(packed, PackedPhoneNumber.of(10, 20, 304));
+        assertEquals(packed.hashCode(), PackedPhoneNumber.of(10, 20, 304).hashCode());
+        assertEquals(packed.hashCode(), new PhoneNumber(10, 20, 304).hashCode());
+        assertEquals(packed.toString(), new PhoneNumber(10, 20, 304).toString());
+        assertEquals(packed, PackedPhoneNumber.fromPackedLong(packed.toPackedLong()));
+        assertNotEquals(packed, PackedPhoneNumber.of(10, 20, 305));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @TestDescription("각 부분의 자릿수를 넘는 값은 묶을 수 없다.")
+    public void packedPhoneNumber_범위_테스트() {
+        PackedPhoneNumber.of(1000, 0, 0);
+    }
+
+    @Test
+    @TestDescription("파일을 메모리 맵으로 읽어 줄마다 String 을 만들지 않고 파싱한다.")
+    public void 파일_일괄_파싱_테스트() throws IOException {
+        Path file = temporaryFolder.newFile("numbers.txt").toPath();
+        String content = "010-123-4567\r\n\n123-45-6789\n707-867-5309";
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+
+        List<Long> numbers = new ArrayList<>();
+        List<Long> malformedOffsets = new ArrayList<>();
+        long count = PhoneNumberFileReader.read(file, numbers::add,
+            (offset, length) -> malformedOffsets.add(offset));
+
+        assertEquals(2, count);
+        assertEquals(Arrays.asList(PackedPhoneNumber.of(10, 123, 4567).toPackedLong(),
+            PackedPhoneNumber.of(707, 867, 5309).toPackedLong()), numbers);
+        assertEquals(Collections.singletonList((long) content.indexOf("\n123-45") + 1), malformedOffsets);
+    }
+
+    @Test
+    @TestDescription("큰 파일은 줄 경계에서 나눈 청크를 병렬로 처리해도 결과가 같다.")
+    public void 파일_병렬_파싱_테스트() throws IOException {
+        Path file = temporaryFolder.newFile("numbers.txt").toPath();
+        StringBuilder content = new StringBuilder();
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 1000 == 0) {
+                content.append("broken-line\n");
+            }
+            PackedPhoneNumber number = PackedPhoneNumber.of(i % 1000, i / 1000, i);
+            content.append(number).append('\n');
+            expected.add(number.toPackedLong());
+        }
+        Files.write(file, content.toString().getBytes(StandardCharsets.US_ASCII));
+
+        ConcurrentLinkedQueue<Long> numbers = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Long> malformedOffsets = new ConcurrentLinkedQueue<>();
+        // 청크를 일부러 아주 작게 잡아 줄 중간에서 잘리는 경우를 만든다.
+        long count = PhoneNumberFileReader.readParallel(file, 4, 1000, numbers::add,
+            (offset, length) -> malformedOffsets.add(offset));
+
+        List<Long> actual = new ArrayList<>(numbers);
+        Collections.sort(actual);
+        Collections.sort(expected);
+        assertEquals(10_000, count);
+        assertEquals(expected, actual);
+        assertEquals(10, malformedOffsets.size());
+    }
+
+    @Test
+    @TestDescription("valueOf 는 같은 번호에 대해 캐시된 객체를 돌려준다.")
+    public void valueOf_캐싱() {
+        PhoneNumberCache.Stats before = PhoneNumber.valueOfCacheStats();
+
+        PhoneNumber a = PhoneNumber.valueOf(707, 867, 5309);
+        PhoneNumber b = PhoneNumber.valueOf(707, 867, 5309);
+
+        assertSame(a, b);
+        assertEquals(new PhoneNumber(707, 867, 5309), a);
+        assertNotSame(a, PhoneNumber.valueOf(707, 867, 5308));
+        assertTrue(PhoneNumber.valueOfCacheStats().getHitCount() > before.getHitCount());
+    }
+
+    /*
+    절반은 자주 쓰는 번호 150개 중 하나를, 나머지 절반은 다시 나오지 않는 번호를 차례로(scan) 조회한다.
+    적중할 수 있는 것은 자주 쓰는 번호뿐이므로 적중률은 0.5 를 넘을 수 없다.
+     */
+    private static double hitRate(EvictionPolicy policy) {
+        PhoneNumberCache<Long> cache = new PhoneNumberCache<>(200, policy, Long::valueOf);
+        Random random = new Random(24);
+        long scan = 1_000;
+        for (int i = 0; i < 200_000; i++) {
+            long phoneNumber = random.nextBoolean() ? random.nextInt(150) : scan++;
+            cache.get(phoneNumber);
+        }
+        PhoneNumberCache.Stats stats = cache.stats();
+        assertEquals(200_000, stats.getHitCount() + stats.getMissCount());
+        assertTrue(cache.size() <= 200);
+        return stats.getHitRate();
+    }
+
+    @Test
+    @TestDescription("한 번 쓰고 마는 번호가 계속 지나가는 부하에서 LRU 는 자주 쓰는 번호를 잃지만 TinyLFU 는 지킨다.")
+    public void 캐시_제거_정책() {
+        double lru = hitRate(EvictionPolicy.lru());
+        double tinyLfu = hitRate(EvictionPolicy.tinyLfu());
+
+        // LRU 는 scan 번호가 자주 쓰는 번호를 밀어내서 0.3 에도 못 미치고, TinyLFU 는 scan 번호를 본 캐시에 들이지 않는다.
+        assertTrue("lru: " + lru + ", tinyLfu: " + tinyLfu, tinyLfu - lru > 0.15);
+        assertTrue("tinyLfu: " + tinyLfu, tinyLfu > 0.45);
+    }
+
+    @Test
+    @TestDescription("invalidate 로 지운 번호는 다음 조회에서 새로 만들고, 정책에서도 빠져 다른 번호를 내보내지 않는다.")
+    public void 캐시_무효화() {
+        AtomicInteger loads = new AtomicInteger();
+        PhoneNumberCache<String> cache = new PhoneNumberCache<>(2, 1, EvictionPolicy.lru(),
+            phoneNumber -> phoneNumber + "#" + loads.incrementAndGet());
+        String first = cache.get(1);
+        cache.get(2);
+
+        assertTrue(cache.invalidate(1));
+        assertFalse(cache.invalidate(1));
+        assertEquals(1, cache.size());
+
+        // 정책에 1 이 남아 있었다면 3 을 넣을 때 이미 지운 1 을 내보내려 했을 것이다.
+        cache.get(3);
+        assertEquals(2, cache.size());
+        assertEquals(0, cache.stats().getEvictionCount());
+        assertNotEquals(first, cache.get(1));
+        assertEquals(4, loads.get());
+        assertEquals(1, cache.stats().getEvictionCount());
+    }
 
     @NoArgsConstructor
     @AllArgsConstructor
@@ -72,8 +270,6 @@ public class Item12Test {
         private Integer prefix;
         private Integer lineNum;
 
-        private static final Pattern phoneNumberPattern = Pattern.compile("^\\d{3}-\\d{3}-\\d{4}$");
-
         @Override
         public boolean equals(Object o) {
             if (!(o instanceof PhoneNumber)) {
@@ -100,17 +296,59 @@ public class Item12Test {
             return String.format("%03d-%03d-%04d", areaCode, prefix, lineNum);
         }
 
-        public static PhoneNumber parse(String phoneNumber) {
-            if (!phoneNumberPattern.matcher(phoneNumber).find()) {
+        /*
+        정규식, split, parseInt, 빌더를 거치지 않고 PhoneNumberParser 로 한 번에 파싱한다.
+        형식이 맞지 않을 때만 예외 메시지를 위한 문자열을 만든다.
+         */
+        public static PhoneNumber parse(CharSequence phoneNumber) {
+            long packed = PhoneNumberParser.parse(phoneNumber);
+            if (packed == PhoneNumberParser.INVALID) {
                 throw new UnknownFormatConversionException(phoneNumber + " cannot be parsed");
             }
+            return of(packed);
+        }
+
+        public static PhoneNumber parse(char[] chars, int offset, int length) {
+            long packed = PhoneNumberParser.parse(chars, offset, length);
+            if (packed == PhoneNumberParser.INVALID) {
+                throw new UnknownFormatConversionException(
+                    new String(chars, offset, length) + " cannot be parsed");
+            }
+            return of(packed);
+        }
+
+        public static PhoneNumber parse(byte[] bytes, int offset, int length) {
+            long packed = PhoneNumberParser.parse(bytes, offset, length);
+            if (packed == PhoneNumberParser.INVALID) {
+                throw new UnknownFormatConversionException(
+                    new String(bytes, offset, length, StandardCharsets.US_ASCII) + " cannot be parsed");
+            }
+            return of(packed);
+        }
+
+        /*
+        Boolean.valueOf 처럼 자주 쓰는 번호는 캐시에 있던 객체를 돌려준다. (아이템 1)
+        몇몇 번호가 대부분의 호출을 차지하는 부하를 위해 W-TinyLFU 정책으로 1,024 개까지 담는다.
+         */
+        private static final PhoneNumberCache<PhoneNumber> VALUE_OF_CACHE =
+            new PhoneNumberCache<>(1024, EvictionPolicy.tinyLfu(), PhoneNumber::of);
+
+        public static PhoneNumber valueOf(int areaCode, int prefix, int lineNum) {
+            if (areaCode < 0 || areaCode > 999 || prefix < 0 || prefix > 999 || lineNum < 0 || lineNum > 9999) {
+                throw new IllegalArgumentException(
+                    String.format("%d-%d-%d is not a phone number", areaCode, prefix, lineNum));
+            }
+            return VALUE_OF_CACHE.get(PhoneNumberParser.pack(areaCode, prefix, lineNum));
+        }
+
+        public static PhoneNumberCache.Stats valueOfCacheStats() {
+            return VALUE_OF_CACHE.stats();
+        }
 
-            String[] numbers = phoneNumber.split("-");
-            return PhoneNumber.builder()
-                .areaCode(Integer.parseInt(numbers[0]))
-                .prefix(Integer.parseInt(numbers[1]))
-                .lineNum(Integer.parseInt(numbers[2]))
-                .build();
+        private static PhoneNumber of(long packed) {
+            return new PhoneNumber(PhoneNumberParser.areaCode(packed),
+                PhoneNumberParser.prefix(packed),
+                PhoneNumberParser.lineNum(packed));
         }
     }
 }
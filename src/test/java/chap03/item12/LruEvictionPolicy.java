@@ -0,0 +1,48 @@
+package chap03.item12;
+
+import chap03.item11.PhoneNumberMap;
+
+/*
+가장 오래 쓰지 않은 번호를 내보내는 정책
+ */
+final class LruEvictionPolicy implements EvictionPolicy.Policy {
+
+    private final int capacity;
+    private final PhoneNumberMap<AccessOrderList.Node> nodes;
+    private final AccessOrderList order = new AccessOrderList();
+
+    LruEvictionPolicy(int capacity) {
+        this.capacity = capacity;
+        this.nodes = new PhoneNumberMap<>(capacity + 1);
+    }
+
+    @Override
+    public void onHit(long key) {
+        AccessOrderList.Node node = nodes.get(key);
+        if (node != null) {
+            order.moveToFirst(node);
+        }
+    }
+
+    @Override
+    public long onMiss(long key) {
+        AccessOrderList.Node node = new AccessOrderList.Node(key);
+        nodes.put(key, node);
+        order.addFirst(node);
+        if (order.size() <= capacity) {
+            return EvictionPolicy.NO_KEY;
+        }
+        AccessOrderList.Node victim = order.last();
+        order.remove(victim);
+        nodes.remove(victim.key);
+        return victim.key;
+    }
+
+    @Override
+    public void onRemove(long key) {
+        AccessOrderList.Node node = nodes.remove(key);
+        if (node != null) {
+            order.remove(node);
+        }
+    }
+}
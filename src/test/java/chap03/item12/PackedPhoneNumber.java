@@ -0,0 +1,114 @@
+package chap03.item12;
+
+import java.util.UnknownFormatConversionException;
+
+/*
+세 부분을 하나의 long 에 묶어 저장하는 불변 전화번호 값 클래스.
+
+Item12Test.PhoneNumber 는 박싱된 Integer 필드 세 개를 참조하고, hashCode 를 호출할 때마다 다시 계산한다.
+PackedPhoneNumber 는 PhoneNumberParser 와 같은 방식으로 묶은 long 하나만 가지므로
+인스턴스 크기가 작고, equals 는 long 비교 한 번으로 끝난다.
+
+해시코드는 String 처럼 처음 호출될 때 계산해서 캐싱한다.
+- 불변 객체이므로 여러 스레드가 동시에 계산하더라도 항상 같은 값을 쓰게 되어 동기화 없이도 안전하다.
+- 계산 결과가 0 인 번호는 매번 다시 계산하지만, 값이 맞지 않는 일은 없다.
+ */
+public final class PackedPhoneNumber {
+
+    private final long packed;
+    private int hashCode;
+
+    private PackedPhoneNumber(long packed) {
+        this.packed = packed;
+    }
+
+    public static PackedPhoneNumber of(int areaCode, int prefix, int lineNum) {
+        rangeCheck(areaCode, 999, "areaCode");
+        rangeCheck(prefix, 999, "prefix");
+        rangeCheck(lineNum, 9999, "lineNum");
+        return new PackedPhoneNumber(PhoneNumberParser.pack(areaCode, prefix, lineNum));
+    }
+
+    public static PackedPhoneNumber parse(CharSequence phoneNumber) {
+        long packed = PhoneNumberParser.parse(phoneNumber);
+        if (packed == PhoneNumberParser.INVALID) {
+            throw new UnknownFormatConversionException(phoneNumber + " cannot be parsed");
+        }
+        return new PackedPhoneNumber(packed);
+    }
+
+    /*
+    PhoneNumberParser 가 반환한 값이나 toPackedLong() 의 결과로부터 인스턴스를 만든다.
+     */
+    public static PackedPhoneNumber fromPackedLong(long packed) {
+        return of(PhoneNumberParser.areaCode(packed),
+            PhoneNumberParser.prefix(packed),
+            PhoneNumberParser.lineNum(packed));
+    }
+
+    private static void rangeCheck(int value, int max, String name) {
+        if (value < 0 || value > max) {
+            throw new IllegalArgumentException(name + ": " + value);
+        }
+    }
+
+    public int getAreaCode() {
+        return PhoneNumberParser.areaCode(packed);
+    }
+
+    public int getPrefix() {
+        return PhoneNumberParser.prefix(packed);
+    }
+
+    public int getLineNum() {
+        return PhoneNumberParser.lineNum(packed);
+    }
+
+    public long toPackedLong() {
+        return packed;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof PackedPhoneNumber)) {
+            return false;
+        }
+        return packed == ((PackedPhoneNumber) o).packed;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = hashCode;
+        if (result == 0) {
+            result = Integer.hashCode(getAreaCode());
+            result = 31 * result + Integer.hashCode(getPrefix());
+            result = 31 * result + Integer.hashCode(getLineNum());
+            hashCode = result;
+        }
+        return result;
+    }
+
+    /*
+    Item12Test.PhoneNumber 와 같은 'ddd-ddd-dddd' 형식. String.format 대신 자릿수를 직접 채운다.
+     */
+    @Override
+    public String toString() {
+        char[] chars = new char[PhoneNumberParser.LENGTH];
+        fill(chars, 0, 3, getAreaCode());
+        chars[3] = '-';
+        fill(chars, 4, 3, getPrefix());
+        chars[7] = '-';
+        fill(chars, 8, 4, getLineNum());
+        return new String(chars);
+    }
+
+    private static void fill(char[] chars, int offset, int digits, int value) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package chap03.item12;
+
+import chap03.item11.PhoneNumberMap;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/*
+압축한 전화번호(PhoneNumberParser.pack) 를 키로 자주 쓰는 값을 재사용하는 크기 제한 캐시.
+Boolean.valueOf 처럼 PhoneNumber.valueOf 가 같은 번호에 대해 매번 새 객체를 만들지 않게 한다.
+
+- 키의 해시로 고른 세그먼트마다 잠금이 따로 있어서, 서로 다른 세그먼트의 번호는 동시에 조회한다.
+- 세그먼트마다 maximumSize / 세그먼트 수 만큼 담고, 넘치면 EvictionPolicy 가 내보낼 번호를 고른다.
+- 없는 번호는 잠금 밖에서 loader 로 만든다. 두 스레드가 같은 번호를 동시에 만들면 먼저 넣은 값을 함께 쓴다.
+- 번호가 다른 사람에게 넘어가는 등 캐시한 값이 맞지 않게 되면 invalidate 로 지운다. 지운 번호는 정책에서도 빠진다.
+- 적중(hit), 실패(miss), 내보냄(eviction) 횟수를 LongAdder 로 세고 stats() 로 돌려준다.
+ */
+public final class PhoneNumberCache<V> {
+
+    private final Segment<V>[] segments;
+    private final int segmentShift;
+    private final LongFunction<? extends V> loader;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PhoneNumberCache(int maximumSize, EvictionPolicy policy, LongFunction<? extends V> loader) {
+        this(maximumSize, Math.min(16, Integer.highestOneBit(Math.max(1, maximumSize / 64))), policy, loader);
+    }
+
+    PhoneNumberCache(int maximumSize, int segmentCount, EvictionPolicy policy, LongFunction<? extends V> loader) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize: " + maximumSize);
+        }
+        if (Integer.bitCount(segmentCount) != 1) {
+            throw new IllegalArgumentException("segmentCount: " + segmentCount);
+        }
+        this.loader = Objects.requireNonNull(loader);
+        // Segment<?>[] 에는 Segment<V> 만 넣으므로 형변환은 안전하다.
+        @SuppressWarnings("unchecked")
+        Segment<V>[] created = (Segment<V>[]) new Segment<?>[segmentCount];
+        int capacity = (maximumSize + segmentCount - 1) / segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            created[i] = new Segment<>(capacity, policy.newPolicy(capacity));
+        }
+        this.segments = created;
+        this.segmentShift = Integer.SIZE - Integer.numberOfTrailingZeros(segmentCount);
+    }
+
+    public V get(long phoneNumber) {
+        if (phoneNumber < 0) {
+            throw new IllegalArgumentException("phoneNumber: " + phoneNumber);
+        }
+        Segment<V> segment = segmentFor(phoneNumber);
+        V value = segment.getIfPresent(phoneNumber);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        V loaded = Objects.requireNonNull(loader.apply(phoneNumber));
+        return segment.putIfAbsent(phoneNumber, loaded, evictions);
+    }
+
+    /*
+    phoneNumber 를 캐시에서 지운다. 캐시에 있었으면 true. 다음 get 은 loader 로 새로 만든다.
+     */
+    public boolean invalidate(long phoneNumber) {
+        if (phoneNumber < 0) {
+            return false;
+        }
+        return segmentFor(phoneNumber).invalidate(phoneNumber);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private Segment<V> segmentFor(long phoneNumber) {
+        if (segments.length == 1) {
+            return segments[0];
+        }
+        int h = (int) ((phoneNumber * 0x9E3779B97F4A7C15L) >>> 32);
+        return segments[h >>> segmentShift];
+    }
+
+    private static final class Segment<V> {
+
+        private final PhoneNumberMap<V> values;
+        private final EvictionPolicy.Policy policy;
+
+        Segment(int capacity, EvictionPolicy.Policy policy) {
+            this.values = new PhoneNumberMap<>(capacity + 1);
+            this.policy = policy;
+        }
+
+        synchronized V getIfPresent(long phoneNumber) {
+            V value = values.get(phoneNumber);
+            if (value != null) {
+                policy.onHit(phoneNumber);
+            }
+            return value;
+        }
+
+        synchronized V putIfAbsent(long phoneNumber, V value, LongAdder evictions) {
+            V existing = values.get(phoneNumber);
+            if (existing != null) {
+                policy.onHit(phoneNumber);
+                return existing;
+            }
+            long victim = policy.onMiss(phoneNumber);
+            if (victim == phoneNumber) {
+                // 정책이 받아들이지 않았다. 캐시하지 않고 돌려준다.
+                return value;
+            }
+            values.put(phoneNumber, value);
+            if (victim != EvictionPolicy.NO_KEY) {
+                values.remove(victim);
+                evictions.increment();
+            }
+            return value;
+        }
+
+        synchronized boolean invalidate(long phoneNumber) {
+            if (values.remove(phoneNumber) == null) {
+                return false;
+            }
+            policy.onRemove(phoneNumber);
+            return true;
+        }
+
+        synchronized int size() {
+            return values.size();
+        }
+    }
+
+    public static final class Stats {
+
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+
+        private Stats(long hitCount, long missCount, long evictionCount) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public double getHitRate() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 1.0 : (double) hitCount / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Stats{hits=%d, misses=%d, evictions=%d, hitRate=%.3f}", hitCount, missCount,
+                evictionCount, getHitRate());
+        }
+    }
+}
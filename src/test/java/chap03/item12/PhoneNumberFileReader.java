@@ -0,0 +1,182 @@
+package chap03.item12;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
+
+/*
+줄 단위로 전화번호가 들어있는 파일을 메모리 맵으로 읽어 한꺼번에 파싱한다.
+
+- FileChannel.map 으로 파일을 매핑하고 바이트를 직접 훑기 때문에 줄마다 String 을 만들지 않는다.
+- 파싱된 번호는 PhoneNumberParser 의 packed long 값으로 LongConsumer 에 전달한다.
+  객체가 필요하면 PackedPhoneNumber.fromPackedLong 으로 만든다.
+- 형식이 맞지 않는 줄은 파일 안에서의 바이트 오프셋과 길이를 MalformedLineHandler 로 알려준다.
+- 빈 줄은 건너뛰고, 줄 끝의 '\r' 은 무시한다.
+
+하나의 매핑은 Integer.MAX_VALUE 바이트를 넘을 수 없으므로 큰 파일은 줄 경계에서 나눈 청크 단위로 매핑한다.
+readParallel 은 이 청크들을 여러 스레드에서 동시에 처리한다.
+ */
+public final class PhoneNumberFileReader {
+
+    @FunctionalInterface
+    public interface MalformedLineHandler {
+        void onMalformedLine(long offset, int length);
+    }
+
+    static final long MAX_CHUNK_SIZE = 1L << 30;
+    private static final long MIN_PARALLEL_CHUNK_SIZE = 1L << 20;
+
+    private PhoneNumberFileReader() {
+    }
+
+    /*
+    파일 전체를 현재 스레드에서 순서대로 읽고, 파싱에 성공한 번호의 개수를 반환한다.
+     */
+    public static long read(Path path, LongConsumer consumer, MalformedLineHandler malformedLineHandler)
+        throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long count = 0;
+            for (long[] chunk : split(channel, MAX_CHUNK_SIZE)) {
+                count += scan(channel, chunk[0], chunk[1], consumer, malformedLineHandler);
+            }
+            return count;
+        }
+    }
+
+    /*
+    파일을 줄 경계에서 청크로 나누어 parallelism 개의 스레드로 처리한다.
+    consumer 와 malformedLineHandler 는 여러 스레드에서 동시에 호출되므로 스레드 안전해야 하고, 호출 순서는 보장하지 않는다.
+     */
+    public static long readParallel(Path path, int parallelism, LongConsumer consumer,
+        MalformedLineHandler malformedLineHandler) throws IOException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism: " + parallelism);
+        }
+        long size;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            size = channel.size();
+        }
+        long chunkSize = (size + parallelism * 4L - 1) / (parallelism * 4L);
+        chunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_PARALLEL_CHUNK_SIZE, chunkSize));
+        return readParallel(path, parallelism, chunkSize, consumer, malformedLineHandler);
+    }
+
+    static long readParallel(Path path, int parallelism, long chunkSize, LongConsumer consumer,
+        MalformedLineHandler malformedLineHandler) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (long[] chunk : split(channel, chunkSize)) {
+                futures.add(executor.submit(
+                    () -> scan(channel, chunk[0], chunk[1], consumer, malformedLineHandler)));
+            }
+
+            long count = 0;
+            for (Future<Long> future : futures) {
+                count += await(future);
+            }
+            return count;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long await(Future<Long> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while reading phone numbers", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /*
+    [start, end) 범위를 chunkSize 근처에서 자르되, 각 청크의 끝을 그 다음 '\n' 바로 뒤로 맞춘다.
+    한 줄이 chunkSize 보다 길면 그 줄을 모두 포함할 때까지 청크가 늘어난다.
+     */
+    static List<long[]> split(FileChannel channel, long chunkSize) throws IOException {
+        long size = channel.size();
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long start = 0;
+        while (start < size) {
+            long end = start + chunkSize >= size ? size : nextLineStart(channel, start + chunkSize, size, probe);
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("line too long to map near offset " + start);
+            }
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size, ByteBuffer probe)
+        throws IOException {
+        // position 바로 앞이 '\n' 이면 position 자체가 줄의 시작이다.
+        long pos = position - 1;
+        while (pos < size) {
+            probe.clear();
+            int read = channel.read(probe, pos);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += read;
+        }
+        return size;
+    }
+
+    private static long scan(FileChannel channel, long start, long end, LongConsumer consumer,
+        MalformedLineHandler malformedLineHandler) throws IOException {
+        MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, start, end - start);
+        int limit = buffer.limit();
+        long count = 0;
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+
+            int length = lineEnd - lineStart;
+            if (length > 0 && buffer.get(lineEnd - 1) == '\r') {
+                length--;
+            }
+            if (length > 0) {
+                long packed = PhoneNumberParser.parse(buffer, lineStart, length);
+                if (packed == PhoneNumberParser.INVALID) {
+                    malformedLineHandler.onMalformedLine(start + lineStart, length);
+                } else {
+                    consumer.accept(packed);
+                    count++;
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return count;
+    }
+}
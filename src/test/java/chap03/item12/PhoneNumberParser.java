@@ -0,0 +1,122 @@
+package chap03.item12;
+
+import java.nio.ByteBuffer;
+
+/*
+'ddd-ddd-dddd' 형식의 전화번호를 한 번의 순회로 파싱한다.
+
+정규식 매칭, String.split, Integer.parseInt 를 거치면 입력 한 건마다 Matcher, 배열, 부분 문자열이 생성된다.
+여기서는 각 문자를 한 번씩만 읽으면서 형식을 검증하고 숫자를 누적하므로 중간 객체를 전혀 만들지 않는다.
+결과는 객체 대신 세 부분을 비트로 묶은 long 값(packed)으로 돌려주고, 형식이 맞지 않으면 INVALID 를 반환한다.
+
+packed 값의 구성 (하위 34비트만 사용)
+- areaCode : 10비트 (0 ~ 999)
+- prefix   : 10비트 (0 ~ 999)
+- lineNum  : 14비트 (0 ~ 9999)
+
+각 필드가 자신의 비트 폭 안에 들어가므로 packed 값의 대소 관계는 (areaCode, prefix, lineNum) 순서와 같다.
+ */
+public final class PhoneNumberParser {
+
+    public static final long INVALID = -1L;
+
+    static final int LENGTH = 12;
+    private static final int FIRST_HYPHEN = 3;
+    private static final int SECOND_HYPHEN = 7;
+
+    private static final int PREFIX_BITS = 10;
+    private static final int LINE_NUM_BITS = 14;
+    private static final int AREA_CODE_SHIFT = PREFIX_BITS + LINE_NUM_BITS;
+    private static final long PREFIX_MASK = (1L << PREFIX_BITS) - 1;
+    private static final long LINE_NUM_MASK = (1L << LINE_NUM_BITS) - 1;
+
+    private PhoneNumberParser() {
+    }
+
+    public static long parse(CharSequence phoneNumber) {
+        return parse(phoneNumber, 0, phoneNumber.length());
+    }
+
+    public static long parse(CharSequence chars, int offset, int length) {
+        return parse(CHAR_SEQUENCE, chars, offset, length);
+    }
+
+    public static long parse(char[] chars, int offset, int length) {
+        return parse(CHAR_ARRAY, chars, offset, length);
+    }
+
+    /*
+    ASCII(또는 UTF-8) 로 인코딩된 바이트를 그대로 읽는다. 파일이나 네트워크 버퍼를 디코딩 없이 파싱할 때 사용한다.
+     */
+    public static long parse(byte[] bytes, int offset, int length) {
+        return parse(BYTE_ARRAY, bytes, offset, length);
+    }
+
+    /*
+    버퍼의 position 과 limit 은 바꾸지 않고 절대 위치로 읽는다. 메모리 맵 파일을 그대로 파싱할 때 사용한다.
+     */
+    public static long parse(ByteBuffer buffer, int offset, int length) {
+        return parse(BYTE_BUFFER, buffer, offset, length);
+    }
+
+    /*
+    입력 종류마다 index 번째 문자를 읽는 방법. 아무것도 캡처하지 않는 람다라 호출마다 객체가 생기지 않는다.
+     */
+    private interface CharAccessor<T> {
+
+        int charAt(T input, int index);
+    }
+
+    private static final CharAccessor<CharSequence> CHAR_SEQUENCE = CharSequence::charAt;
+    private static final CharAccessor<char[]> CHAR_ARRAY = (chars, index) -> chars[index];
+    private static final CharAccessor<byte[]> BYTE_ARRAY = (bytes, index) -> bytes[index];
+    private static final CharAccessor<ByteBuffer> BYTE_BUFFER = ByteBuffer::get;
+
+    private static <T> long parse(CharAccessor<T> accessor, T input, int offset, int length) {
+        if (length != LENGTH) {
+            return INVALID;
+        }
+
+        int areaCode = 0;
+        int prefix = 0;
+        int lineNum = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            int c = accessor.charAt(input, offset + i);
+            if (i == FIRST_HYPHEN || i == SECOND_HYPHEN) {
+                if (c != '-') {
+                    return INVALID;
+                }
+                continue;
+            }
+
+            int digit = c - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            if (i < FIRST_HYPHEN) {
+                areaCode = areaCode * 10 + digit;
+            } else if (i < SECOND_HYPHEN) {
+                prefix = prefix * 10 + digit;
+            } else {
+                lineNum = lineNum * 10 + digit;
+            }
+        }
+        return pack(areaCode, prefix, lineNum);
+    }
+
+    static long pack(int areaCode, int prefix, int lineNum) {
+        return ((long) areaCode << AREA_CODE_SHIFT) | ((long) prefix << LINE_NUM_BITS) | lineNum;
+    }
+
+    static int areaCode(long packed) {
+        return (int) (packed >>> AREA_CODE_SHIFT);
+    }
+
+    static int prefix(long packed) {
+        return (int) ((packed >>> LINE_NUM_BITS) & PREFIX_MASK);
+    }
+
+    static int lineNum(long packed) {
+        return (int) (packed & LINE_NUM_MASK);
+    }
+}
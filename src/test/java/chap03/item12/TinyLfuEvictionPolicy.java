@@ -0,0 +1,105 @@
+package chap03.item12;
+
+import chap03.item11.PhoneNumberMap;
+
+/*
+W-TinyLFU 정책.
+
+- window : 용량의 1% 인 LRU. 새 번호는 여기에 먼저 들어가서, 잠깐 몰리는 번호도 바로 캐시된다.
+- probation / protected : 나머지 99% 를 나눈 SLRU. probation 에서 한 번 더 쓰인 번호는 protected(80%) 로 올라간다.
+- window 에서 밀려난 번호는 probation 에서 내보낼 후보와 FrequencySketch 의 빈도를 비교해서, 더 자주 쓰였을 때만 본 캐시에 들어간다.
+ */
+final class TinyLfuEvictionPolicy implements EvictionPolicy.Policy {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final int protectedCapacity;
+    private final PhoneNumberMap<AccessOrderList.Node> nodes;
+    private final AccessOrderList window = new AccessOrderList();
+    private final AccessOrderList probation = new AccessOrderList();
+    private final AccessOrderList protectedList = new AccessOrderList();
+    private final FrequencySketch sketch;
+
+    TinyLfuEvictionPolicy(int capacity) {
+        this.windowCapacity = Math.max(1, capacity / 100);
+        this.mainCapacity = Math.max(0, capacity - windowCapacity);
+        this.protectedCapacity = mainCapacity * 4 / 5;
+        this.nodes = new PhoneNumberMap<>(capacity + 1);
+        this.sketch = new FrequencySketch(capacity);
+    }
+
+    @Override
+    public void onHit(long key) {
+        sketch.increment(key);
+        AccessOrderList.Node node = nodes.get(key);
+        if (node == null) {
+            return;
+        }
+        if (node.queue == WINDOW) {
+            window.moveToFirst(node);
+        } else if (node.queue == PROTECTED) {
+            protectedList.moveToFirst(node);
+        } else {
+            probation.remove(node);
+            node.queue = PROTECTED;
+            protectedList.addFirst(node);
+            if (protectedList.size() > protectedCapacity) {
+                AccessOrderList.Node demoted = protectedList.last();
+                protectedList.remove(demoted);
+                demoted.queue = PROBATION;
+                probation.addFirst(demoted);
+            }
+        }
+    }
+
+    @Override
+    public long onMiss(long key) {
+        sketch.increment(key);
+        AccessOrderList.Node node = new AccessOrderList.Node(key);
+        node.queue = WINDOW;
+        nodes.put(key, node);
+        window.addFirst(node);
+        if (window.size() <= windowCapacity) {
+            return EvictionPolicy.NO_KEY;
+        }
+
+        AccessOrderList.Node candidate = window.last();
+        window.remove(candidate);
+        if (probation.size() + protectedList.size() < mainCapacity) {
+            candidate.queue = PROBATION;
+            probation.addFirst(candidate);
+            return EvictionPolicy.NO_KEY;
+        }
+
+        AccessOrderList victimList = probation.size() > 0 ? probation : protectedList;
+        AccessOrderList.Node victim = victimList.last();
+        if (victim == null || sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+            nodes.remove(candidate.key);
+            return candidate.key;
+        }
+        victimList.remove(victim);
+        nodes.remove(victim.key);
+        candidate.queue = PROBATION;
+        probation.addFirst(candidate);
+        return victim.key;
+    }
+
+    @Override
+    public void onRemove(long key) {
+        AccessOrderList.Node node = nodes.remove(key);
+        if (node == null) {
+            return;
+        }
+        if (node.queue == WINDOW) {
+            window.remove(node);
+        } else if (node.queue == PROBATION) {
+            probation.remove(node);
+        } else {
+            protectedList.remove(node);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package chap03.item14;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/*
+comparingLong -> thenComparingDouble -> thenComparingInt 같은 다중 키 비교자를 한 번에 만드는 빌더.
+
+Comparator.thenComparing 으로 이어 붙인 비교자는 키 하나마다 람다로 감싼 비교자가 한 겹씩 쌓인다.
+비교 한 번에 여러 단계의 간접 호출을 거치고, 모든 비교자가 같은 람다 클래스를 공유하므로 호출 지점이 megamorphic 이 된다.
+
+ComparatorBuilder 는 같은 키 설명을 받아서
+1. build() : 키 목록을 비교자 하나로 묶는다. 키가 1 ~ 3 개이면 배열 순회 없이 키를 차례로 비교한다.
+   그래도 비교마다 Key.compare 와 키 추출 람다를 거치므로 간접 호출의 깊이는 thenComparing 체인과 같다.
+   성능보다는 다중 키 비교자를 같은 방법으로 설명하고 sort() 와 결과를 맞추기 위한 것이다.
+2. sort()  : 정렬할 때 원소마다 키를 한 번씩만 뽑아 long 배열에 담고, 그 배열만 비교해서 정렬한다.
+   n log n 번의 비교마다 키 추출 람다를 호출하지 않으므로 위의 간접 호출 비용이 원소 수만큼으로 줄어든다.
+   thenComparing 체인보다 빠른 것은 이쪽이다.
+
+두 방법 모두 비교 결과는 Long.compare, Double.compare, Integer.compare 와 정확히 같다.
+(Double.compare 와 같이 -0.0 < 0.0 이고, NaN 은 모든 값보다 크며 NaN 끼리는 같다)
+ */
+public final class ComparatorBuilder<T> {
+
+    private final List<Key<T>> keys = new ArrayList<>();
+
+    private ComparatorBuilder() {
+    }
+
+    public static <T> ComparatorBuilder<T> comparingLong(ToLongFunction<? super T> keyExtractor) {
+        return new ComparatorBuilder<T>().thenComparingLong(keyExtractor);
+    }
+
+    public static <T> ComparatorBuilder<T> comparingDouble(ToDoubleFunction<? super T> keyExtractor) {
+        return new ComparatorBuilder<T>().thenComparingDouble(keyExtractor);
+    }
+
+    public static <T> ComparatorBuilder<T> comparingInt(ToIntFunction<? super T> keyExtractor) {
+        return new ComparatorBuilder<T>().thenComparingInt(keyExtractor);
+    }
+
+    public ComparatorBuilder<T> thenComparingLong(ToLongFunction<? super T> keyExtractor) {
+        keys.add(new LongKey<>(Objects.requireNonNull(keyExtractor)));
+        return this;
+    }
+
+    public ComparatorBuilder<T> thenComparingDouble(ToDoubleFunction<? super T> keyExtractor) {
+        keys.add(new DoubleKey<>(Objects.requireNonNull(keyExtractor)));
+        return this;
+    }
+
+    public ComparatorBuilder<T> thenComparingInt(ToIntFunction<? super T> keyExtractor) {
+        keys.add(new IntKey<>(Objects.requireNonNull(keyExtractor)));
+        return this;
+    }
+
+    int keyCount() {
+        return keys.size();
+    }
+
+    /*
+    index 번째 키를 부호 있는 long 의 대소 관계가 원래 비교 순서와 같도록 변환한 값.
+     */
+    long sortableKey(int index, T element) {
+        return keys.get(index).sortableKey(element);
+    }
+
+    public Comparator<T> build() {
+        List<Key<T>> snapshot = new ArrayList<>(keys);
+        switch (snapshot.size()) {
+            case 0:
+                throw new IllegalStateException("no key");
+            case 1:
+                return new OneKeyComparator<>(snapshot.get(0));
+            case 2:
+                return new TwoKeyComparator<>(snapshot.get(0), snapshot.get(1));
+            case 3:
+                return new ThreeKeyComparator<>(snapshot.get(0), snapshot.get(1), snapshot.get(2));
+            default:
+                return new ManyKeyComparator<>(snapshot);
+        }
+    }
+
+    // 배열 크기로 잡을 수 있는 안전한 최댓값. 일부 VM 은 배열 헤더 때문에 Integer.MAX_VALUE 까지 잡지 못한다.
+    private static final int MAX_KEY_ROWS = Integer.MAX_VALUE - 8;
+
+    /*
+    키를 원소마다 한 번씩만 뽑아 정렬한다. Arrays.sort(a, build()) 와 같이 안정(stable) 정렬이다.
+    원소 수 x 키 수가 배열 하나에 담기지 않으면 키를 미리 뽑지 않고 비교자로 정렬한다.
+     */
+    public void sort(T[] a) {
+        int n = a.length;
+        if (n < 2) {
+            return;
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("no key");
+        }
+        int keyCount = keys.size();
+        long cells = (long) n * keyCount;
+        if (cells > MAX_KEY_ROWS) {
+            Arrays.sort(a, build());
+            return;
+        }
+        long[] keyRows = new long[(int) cells];
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < keyCount; k++) {
+                keyRows[i * keyCount + k] = keys.get(k).sortableKey(a[i]);
+            }
+        }
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        mergeSort(order, new int[n], 0, n, keyRows, keyCount);
+
+        T[] copy = Arrays.copyOf(a, n);
+        for (int i = 0; i < n; i++) {
+            a[i] = copy[order[i]];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void sort(List<T> list) {
+        T[] a = (T[]) list.toArray();
+        sort(a);
+        ListIterator<T> iterator = list.listIterator();
+        for (T element : a) {
+            iterator.next();
+            iterator.set(element);
+        }
+    }
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private static void mergeSort(int[] order, int[] buffer, int from, int to, long[] keyRows, int keyCount) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int current = order[i];
+                int j = i - 1;
+                while (j >= from && compareRows(keyRows, keyCount, order[j], current) > 0) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = current;
+            }
+            return;
+        }
+
+        int mid = (from + to) >>> 1;
+        mergeSort(order, buffer, from, mid, keyRows, keyCount);
+        mergeSort(order, buffer, mid, to, keyRows, keyCount);
+        if (compareRows(keyRows, keyCount, order[mid - 1], order[mid]) <= 0) {
+            return;
+        }
+
+        System.arraycopy(order, from, buffer, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            // 같으면 왼쪽을 먼저 꺼내야 안정 정렬이 된다.
+            if (right >= to || (left < mid && compareRows(keyRows, keyCount, buffer[left], buffer[right]) <= 0)) {
+                order[i] = buffer[left++];
+            } else {
+                order[i] = buffer[right++];
+            }
+        }
+    }
+
+    private static int compareRows(long[] keyRows, int keyCount, int a, int b) {
+        int offsetA = a * keyCount;
+        int offsetB = b * keyCount;
+        for (int k = 0; k < keyCount; k++) {
+            int result = Long.compare(keyRows[offsetA + k], keyRows[offsetB + k]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    /*
+    Double.compare 와 같은 순서를 갖는 long 값.
+    doubleToLongBits 는 모든 NaN 을 하나의 값으로 바꾸고, 음수는 크기 비트를 뒤집어 부호 있는 long 비교가 되게 한다.
+     */
+    static long sortableDouble(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private abstract static class Key<T> {
+
+        abstract int compare(T a, T b);
+
+        abstract long sortableKey(T element);
+    }
+
+    private static final class LongKey<T> extends Key<T> {
+
+        private final ToLongFunction<? super T> extractor;
+
+        LongKey(ToLongFunction<? super T> extractor) {
+            this.extractor = extractor;
+        }
+
+        @Override
+        int compare(T a, T b) {
+            return Long.compare(extractor.applyAsLong(a), extractor.applyAsLong(b));
+        }
+
+        @Override
+        long sortableKey(T element) {
+            return extractor.applyAsLong(element);
+        }
+    }
+
+    private static final class DoubleKey<T> extends Key<T> {
+
+        private final ToDoubleFunction<? super T> extractor;
+
+        DoubleKey(ToDoubleFunction<? super T> extractor) {
+            this.extractor = extractor;
+        }
+
+        @Override
+        int compare(T a, T b) {
+            return Double.compare(extractor.applyAsDouble(a), extractor.applyAsDouble(b));
+        }
+
+        @Override
+        long sortableKey(T element) {
+            return sortableDouble(extractor.applyAsDouble(element));
+        }
+    }
+
+    private static final class IntKey<T> extends Key<T> {
+
+        private final ToIntFunction<? super T> extractor;
+
+        IntKey(ToIntFunction<? super T> extractor) {
+            this.extractor = extractor;
+        }
+
+        @Override
+        int compare(T a, T b) {
+            return Integer.compare(extractor.applyAsInt(a), extractor.applyAsInt(b));
+        }
+
+        @Override
+        long sortableKey(T element) {
+            return extractor.applyAsInt(element);
+        }
+    }
+
+    private static final class OneKeyComparator<T> implements Comparator<T> {
+
+        private final Key<T> first;
+
+        OneKeyComparator(Key<T> first) {
+            this.first = first;
+        }
+
+        @Override
+        public int compare(T a, T b) {
+            return first.compare(a, b);
+        }
+    }
+
+    private static final class TwoKeyComparator<T> implements Comparator<T> {
+
+        private final Key<T> first;
+        private final Key<T> second;
+
+        TwoKeyComparator(Key<T> first, Key<T> second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public int compare(T a, T b) {
+            int result = first.compare(a, b);
+            return result != 0 ? result : second.compare(a, b);
+        }
+    }
+
+    private static final class ThreeKeyComparator<T> implements Comparator<T> {
+
+        private final Key<T> first;
+        private final Key<T> second;
+        private final Key<T> third;
+
+        ThreeKeyComparator(Key<T> first, Key<T> second, Key<T> third) {
+            this.first = first;
+            this.second = second;
+            this.third = third;
+        }
+
+        @Override
+        public int compare(T a, T b) {
+            int result = first.compare(a, b);
+            if (result == 0) {
+                result = second.compare(a, b);
+                if (result == 0) {
+                    result = third.compare(a, b);
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class ManyKeyComparator<T> implements Comparator<T> {
+
+        private final Key<T>[] keys;
+
+        @SuppressWarnings("unchecked")
+        ManyKeyComparator(List<Key<T>> keys) {
+            this.keys = keys.toArray((Key<T>[]) new Key<?>[0]);
+        }
+
+        @Override
+        public int compare(T a, T b) {
+            for (Key<T> key : keys) {
+                int result = key.compare(a, b);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -1,7 +1,15 @@
 package chap03.item14;
 
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import chap03.item12.PackedPhoneNumber;
+import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
 
 /*
 Item 14. Comparable을 구현할지 고려하라.
@@ -146,5 +154,219 @@ public class Item14Test {
         public int compareTo(ComparatorConstructor comparatorConstructor) {
             return COMPARATOR.compare(this, comparatorConstructor);
         }
+
+        public long getHeight() {
+            return height;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+
+        public int getAge() {
+            return age;
+        }
+    }
+
+    /*
+    COMPARATOR 와 같은 키 설명으로 만든 ComparatorBuilder
+     */
+    static ComparatorBuilder<ComparatorConstructor> comparatorBuilder() {
+        return ComparatorBuilder.comparingLong(ComparatorConstructor::getHeight)
+            .thenComparingDouble(ComparatorConstructor::getWeight)
+            .thenComparingInt(ComparatorConstructor::getAge);
+    }
+
+    private static final double[] SPECIAL_WEIGHTS = {
+        Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, -Double.MIN_VALUE,
+        Double.MIN_VALUE, -1.5, 1.5
+    };
+
+    static ComparatorConstructor[] randomComparatorConstructors(int size, long seed) {
+        Random random = new Random(seed);
+        ComparatorConstructor[] result = new ComparatorConstructor[size];
+        for (int i = 0; i < size; i++) {
+            double weight = random.nextInt(4) == 0
+                ? SPECIAL_WEIGHTS[random.nextInt(SPECIAL_WEIGHTS.length)]
+                : random.nextInt(10) / 2.0 - 2;
+            long height = random.nextInt(8) == 0 ? random.nextLong() : random.nextInt(5) - 2;
+            int age = random.nextInt(8) == 0 ? random.nextInt() : random.nextInt(5);
+            result[i] = new ComparatorConstructor(height, weight, age);
+        }
+        return result;
+    }
+
+    @Test
+    public void 펼친_비교자는_비교자_생성_메서드와_같은_결과() {
+        Comparator<ComparatorConstructor> compiled = comparatorBuilder().build();
+        ComparatorConstructor[] values = randomComparatorConstructors(500, 14);
+
+        for (ComparatorConstructor a : values) {
+            for (ComparatorConstructor b : values) {
+                assertThat(Integer.signum(compiled.compare(a, b))).isEqualTo(Integer.signum(a.compareTo(b)));
+            }
+        }
+    }
+
+    @Test
+    public void 키를_한번만_뽑는_정렬은_안정_정렬() {
+        ComparatorConstructor[] values = randomComparatorConstructors(10_000, 42);
+        ComparatorConstructor[] expected = values.clone();
+        Arrays.sort(expected);
+
+        ComparatorConstructor[] actual = values.clone();
+        comparatorBuilder().sort(actual);
+
+        // 같은 순서의 원소는 입력 순서를 유지해야 하므로 인스턴스 단위로 같아야 한다.
+        for (int i = 0; i < expected.length; i++) {
+            assertThat(actual[i]).isSameAs(expected[i]);
+        }
+
+        List<ComparatorConstructor> list = Arrays.asList(values.clone());
+        comparatorBuilder().sort(list);
+        assertThat(list).containsExactly(expected);
+    }
+
+    @Test
+    public void 키가_여러개인_비교자() {
+        Comparator<int[]> compiled = ComparatorBuilder.<int[]>comparingInt(a -> a[0])
+            .thenComparingInt(a -> a[1])
+            .thenComparingInt(a -> a[2])
+            .thenComparingLong(a -> a[3])
+            .build();
+
+        assertThat(compiled.compare(new int[]{1, 2, 3, 4}, new int[]{1, 2, 3, 5})).isNegative();
+        assertThat(compiled.compare(new int[]{1, 2, 3, 4}, new int[]{1, 2, 3, 4})).isZero();
+        assertThat(compiled.compare(new int[]{1, 3, 0, 0}, new int[]{1, 2, 9, 9})).isPositive();
+    }
+
+    @Test
+    public void 기수_정렬은_비교_정렬과_같은_결과() {
+        // 작은 배열, 순차 분배, 병렬 분배 경로를 모두 거치도록 크기를 고른다.
+        for (int size : new int[]{100, 5_000, RadixSort.PARALLEL_THRESHOLD * 2}) {
+            ComparatorConstructor[] values = randomComparatorConstructors(size, size);
+            ComparatorConstructor[] expected = values.clone();
+            Arrays.sort(expected);
+
+            RadixSort.sort(values, comparatorBuilder());
+
+            for (int i = 0; i < expected.length; i++) {
+                assertThat(values[i]).isSameAs(expected[i]);
+            }
+        }
+    }
+
+    @Test
+    public void 기수_정렬_long_배열() {
+        Random random = new Random(15);
+        long[] values = new long[RadixSort.PARALLEL_THRESHOLD * 2];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextBoolean() ? random.nextLong() : random.nextInt(1000) - 500;
+        }
+        values[0] = Long.MIN_VALUE;
+        values[1] = Long.MAX_VALUE;
+        long[] expected = values.clone();
+        Arrays.sort(expected);
+
+        RadixSort.sort(values);
+
+        assertThat(values).isEqualTo(expected);
+    }
+
+    @Test
+    public void 기수_정렬_전화번호() {
+        Random random = new Random(12);
+        PackedPhoneNumber[] values = new PackedPhoneNumber[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = PackedPhoneNumber.of(random.nextInt(1000), random.nextInt(1000), random.nextInt(10000));
+        }
+        PackedPhoneNumber[] expected = values.clone();
+        Arrays.sort(expected, Comparator.comparingInt(PackedPhoneNumber::getAreaCode)
+            .thenComparingInt(PackedPhoneNumber::getPrefix)
+            .thenComparingInt(PackedPhoneNumber::getLineNum));
+
+        // 압축된 long 은 (지역번호, 프리픽스, 가입자번호) 순서를 그대로 보존한다.
+        RadixSort.sort(values, PackedPhoneNumber::toPackedLong);
+
+        assertThat(values).containsExactly(expected);
+    }
+
+    @Test
+    public void 상위_K개는_안정_정렬_후_앞에서_자른_것과_같다() {
+        for (int size : new int[]{50, TopK.SEQUENTIAL_THRESHOLD * 8}) {
+            ComparatorConstructor[] values = randomComparatorConstructors(size, size);
+            ComparatorConstructor[] ascending = values.clone();
+            Arrays.sort(ascending);
+            ComparatorConstructor[] descending = values.clone();
+            Arrays.sort(descending, Comparator.reverseOrder());
+
+            for (int k : new int[]{0, 1, 10, 100}) {
+                List<ComparatorConstructor> smallest = TopK.smallest(values, k);
+                List<ComparatorConstructor> largest = TopK.largest(values, k);
+
+                assertThat(smallest).hasSize(Math.min(k, size));
+                for (int i = 0; i < smallest.size(); i++) {
+                    assertThat(smallest.get(i)).isSameAs(ascending[i]);
+                    assertThat(largest.get(i)).isSameAs(descending[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void 상위_K개는_K가_배열_길이와_같아도_전체를_정렬한_것과_같다() {
+        int size = TopK.SEQUENTIAL_THRESHOLD * 4 + 1;
+        ComparatorConstructor[] values = randomComparatorConstructors(size, size / 2);
+        ComparatorConstructor[] ascending = values.clone();
+        Arrays.sort(ascending);
+
+        // K 가 크면 힙 대신 전체를 정렬하고, 힙으로 구하더라도 힙을 구간 길이보다 크게 잡지 않는다.
+        for (int k : new int[]{size / TopK.SORT_FRACTION, size, Integer.MAX_VALUE}) {
+            List<ComparatorConstructor> smallest = TopK.smallest(values, k);
+
+            assertThat(smallest).hasSize(Math.min(k, size));
+            for (int i = 0; i < smallest.size(); i++) {
+                assertThat(smallest.get(i)).isSameAs(ascending[i]);
+            }
+        }
+    }
+
+    @Test
+    public void 상위_K개는_compareTo가_0인_원소를_합치지_않는다() {
+        BigDecimal oneDotZero = new BigDecimal("1.0");
+        BigDecimal oneDotZeroZero = new BigDecimal("1.00");
+        BigDecimal[] values = {new BigDecimal("2"), oneDotZeroZero, new BigDecimal("3"), oneDotZero};
+
+        List<BigDecimal> smallest = TopK.smallest(values, 2);
+
+        // TreeSet 이었다면 하나로 합쳐졌을 두 원소가 원래 순서대로 모두 나온다.
+        assertThat(smallest).hasSize(2);
+        assertThat(smallest.get(0)).isSameAs(oneDotZeroZero);
+        assertThat(smallest.get(1)).isSameAs(oneDotZero);
+    }
+
+    @Test
+    public void n번째_원소_선택() {
+        Random random = new Random(16);
+        for (int size : new int[]{1, 17, 1000, 100_000}) {
+            Integer[] values = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                // 같은 값이 많은 경우도 섞는다.
+                values[i] = size > 1000 && i % 2 == 0 ? 7 : random.nextInt(size);
+            }
+            Integer[] sorted = values.clone();
+            Arrays.sort(sorted);
+
+            int n = random.nextInt(size);
+            TopK.select(values, n);
+
+            assertThat(values[n]).isEqualTo(sorted[n]);
+            for (int i = 0; i < n; i++) {
+                assertThat(values[i]).isLessThanOrEqualTo(values[n]);
+            }
+            for (int i = n + 1; i < size; i++) {
+                assertThat(values[i]).isGreaterThanOrEqualTo(values[n]);
+            }
+        }
     }
 }
@@ -0,0 +1,207 @@
+package chap03.item14;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+/*
+비교 없이 정렬하는 LSD 기수 정렬.
+
+Arrays.sort 는 비교 횟수가 n log n 이라 1억 건 정렬에서는 비교자 호출 비용이 그대로 곱해진다.
+정렬 기준 필드를 순서를 보존하는 unsigned long 키로 바꾸면 8 비트씩 8 번의 분배만으로 정렬할 수 있다.
+
+- 키 변환은 ComparatorBuilder 의 sortableKey 를 그대로 쓴다. (double 은 Double.compare 와 같은 순서, 부호 비트를 뒤집어 unsigned 로)
+- 뒤쪽 키부터, 각 키는 낮은 바이트부터 안정적으로 분배하므로 전체 결과도 안정 정렬이다.
+- 모든 원소의 해당 바이트가 같으면 그 패스는 건너뛴다. (작은 값 범위의 키는 대부분의 패스가 생략된다)
+- 원소가 많으면 구간별로 히스토그램을 세고, 구간별 시작 위치를 계산한 뒤 병렬로 분배한다.
+- 원소가 적으면 ComparatorBuilder.sort 로 정렬한다.
+
+레코드는 키 배열과 함께 원래 위치(int)만 옮기고, 마지막에 한 번만 재배치한다.
+ */
+public final class RadixSort {
+
+    private static final int RADIX_BITS = 8;
+    private static final int BUCKETS = 1 << RADIX_BITS;
+    private static final int MASK = BUCKETS - 1;
+
+    static final int SMALL_ARRAY_THRESHOLD = 256;
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private RadixSort() {
+    }
+
+    public static void sort(long[] a) {
+        int n = a.length;
+        if (n < SMALL_ARRAY_THRESHOLD) {
+            Arrays.sort(a);
+            return;
+        }
+        long[] keys = a;
+        long[] keysBuffer = new long[n];
+        int chunks = chunkCount(n);
+        forEachChunk(n, chunks, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                keys[i] ^= Long.MIN_VALUE;
+            }
+        });
+
+        long[] sorted = sortKeys(keys, keysBuffer, null, chunks);
+
+        forEachChunk(n, chunks, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                a[i] = sorted[i] ^ Long.MIN_VALUE;
+            }
+        });
+    }
+
+    public static <T> void sort(T[] a, ToLongFunction<? super T> key) {
+        sort(a, ComparatorBuilder.comparingLong(key));
+    }
+
+    /*
+    builder 의 키 순서대로 a 를 정렬한다. Arrays.sort(a, builder.build()) 와 같은 결과다.
+     */
+    public static <T> void sort(T[] a, ComparatorBuilder<T> builder) {
+        int n = a.length;
+        if (n < SMALL_ARRAY_THRESHOLD) {
+            builder.sort(a);
+            return;
+        }
+        int chunks = chunkCount(n);
+
+        int[] order = new int[n];
+        int[] orderBuffer = new int[n];
+        Arrays.setAll(order, i -> i);
+        long[] keys = new long[n];
+        long[] keysBuffer = new long[n];
+
+        for (int k = builder.keyCount() - 1; k >= 0; k--) {
+            int keyIndex = k;
+            int[] currentOrder = order;
+            forEachChunk(n, chunks, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    keys[i] = builder.sortableKey(keyIndex, a[currentOrder[i]]) ^ Long.MIN_VALUE;
+                }
+            });
+
+            int[][] orders = {order, orderBuffer};
+            long[] sorted = sortKeys(keys, keysBuffer, orders, chunks);
+            if (sorted != keys) {
+                // 홀수 번 분배했으면 결과가 버퍼 쪽에 있다. 다음 키를 위해 배열 역할을 맞바꾼다.
+                int[] swap = order;
+                order = orderBuffer;
+                orderBuffer = swap;
+            }
+        }
+
+        T[] copy = Arrays.copyOf(a, n);
+        int[] finalOrder = order;
+        forEachChunk(n, chunks, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                a[i] = copy[finalOrder[i]];
+            }
+        });
+    }
+
+    /*
+    keys 를 unsigned 로 정렬하고 정렬된 결과가 담긴 배열(keys 또는 keysBuffer)을 돌려준다.
+    orders 가 있으면 orders[0] 과 orders[1] 도 같은 방식으로 함께 옮긴다.
+     */
+    private static long[] sortKeys(long[] keys, long[] keysBuffer, int[][] orders, int chunks) {
+        int n = keys.length;
+        long[] source = keys;
+        long[] target = keysBuffer;
+        int[] sourceOrder = orders == null ? null : orders[0];
+        int[] targetOrder = orders == null ? null : orders[1];
+        int chunkSize = (n + chunks - 1) / chunks;
+        int[][] counts = new int[chunks][BUCKETS];
+
+        for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+            int digitShift = shift;
+            long[] from = source;
+            forEachChunk(n, chunks, (lo, hi) -> {
+                int[] count = counts[lo / chunkSize];
+                Arrays.fill(count, 0);
+                for (int i = lo; i < hi; i++) {
+                    count[(int) (from[i] >>> digitShift) & MASK]++;
+                }
+            });
+
+            if (isUniform(counts, n)) {
+                continue;
+            }
+
+            int offset = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                for (int[] count : counts) {
+                    int c = count[bucket];
+                    count[bucket] = offset;
+                    offset += c;
+                }
+            }
+
+            long[] to = target;
+            int[] fromOrder = sourceOrder;
+            int[] toOrder = targetOrder;
+            forEachChunk(n, chunks, (lo, hi) -> {
+                int[] position = counts[lo / chunkSize];
+                for (int i = lo; i < hi; i++) {
+                    long key = from[i];
+                    int p = position[(int) (key >>> digitShift) & MASK]++;
+                    to[p] = key;
+                    if (toOrder != null) {
+                        toOrder[p] = fromOrder[i];
+                    }
+                }
+            });
+
+            source = to;
+            target = from;
+            if (orders != null) {
+                targetOrder = fromOrder;
+                sourceOrder = toOrder;
+            }
+        }
+        return source;
+    }
+
+    private static boolean isUniform(int[][] counts, int n) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            int total = 0;
+            for (int[] count : counts) {
+                total += count[bucket];
+            }
+            if (total != 0) {
+                return total == n;
+            }
+        }
+        return true;
+    }
+
+    private static int chunkCount(int n) {
+        if (n < PARALLEL_THRESHOLD) {
+            return 1;
+        }
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(parallelism * 4, n / (PARALLEL_THRESHOLD / 4)));
+    }
+
+    private interface RangeConsumer {
+
+        void accept(int from, int to);
+    }
+
+    private static void forEachChunk(int n, int chunks, RangeConsumer action) {
+        int chunkSize = (n + chunks - 1) / chunks;
+        IntConsumer perChunk = chunk -> {
+            int from = chunk * chunkSize;
+            action.accept(from, Math.min(n, from + chunkSize));
+        };
+        if (chunks == 1) {
+            perChunk.accept(0);
+        } else {
+            IntStream.range(0, chunks).parallel().forEach(perChunk);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package chap03.item14;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+전체를 정렬하지 않고 가장 작은(큰) K 개만 구한다.
+
+- smallest / largest : 배열을 fork-join 으로 나누고, 구간마다 크기 K 의 힙을 유지한 뒤 마지막에 합친다. O(n log K)
+  힙은 구간 길이보다 크게 잡지 않는다. K 가 n 의 SORT_FRACTION 분의 1 을 넘으면 힙이 전체 정렬보다 나을 것이 없으므로
+  배열의 복사본을 안정 정렬해서 앞에서 K 개를 자른다.
+- select : nth_element 와 같은 introselect. a[n] 에 정렬했을 때 n 번째 원소가 오고, 왼쪽은 그보다 작거나 같고 오른쪽은 크거나 같다.
+  재귀가 너무 깊어지면 (나쁜 피벗이 반복되면) 남은 구간을 정렬해서 최악의 경우도 O(n log n) 으로 막는다.
+
+compareTo 가 0 이라고 같은 객체는 아니다. (아이템 14의 new BigDecimal("1.0") 과 new BigDecimal("1.00"))
+TreeSet 처럼 compareTo 로 중복을 제거하지 않고, 순서가 같은 원소는 원래 배열의 앞쪽 원소를 먼저 고른다.
+그래서 결과는 항상 Arrays.sort(안정 정렬) 후 앞에서 K 개를 자른 것과 같다.
+ */
+public final class TopK {
+
+    static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+    static final int SORT_FRACTION = 4;
+
+    private TopK() {
+    }
+
+    public static <T extends Comparable<? super T>> List<T> smallest(T[] a, int k) {
+        return smallest(a, k, Comparator.naturalOrder());
+    }
+
+    public static <T extends Comparable<? super T>> List<T> largest(T[] a, int k) {
+        return smallest(a, k, Comparator.reverseOrder());
+    }
+
+    public static <T> List<T> largest(T[] a, int k, Comparator<? super T> comparator) {
+        return smallest(a, k, Collections.reverseOrder(comparator));
+    }
+
+    /*
+    comparator 순서로 가장 작은 k 개를 오름차순으로 돌려준다.
+     */
+    public static <T> List<T> smallest(T[] a, int k, Comparator<? super T> comparator) {
+        Objects.requireNonNull(comparator);
+        if (k < 0) {
+            throw new IllegalArgumentException("k: " + k);
+        }
+        int limit = Math.min(k, a.length);
+        if (limit == 0) {
+            return new ArrayList<>();
+        }
+
+        if (limit > a.length / SORT_FRACTION) {
+            T[] sorted = Arrays.copyOf(a, a.length);
+            Arrays.sort(sorted, comparator);
+            return new ArrayList<>(Arrays.asList(sorted).subList(0, limit));
+        }
+
+        IndexOrder<T> order = new IndexOrder<>(a, comparator);
+        int[] candidates;
+        if (a.length <= SEQUENTIAL_THRESHOLD) {
+            candidates = new SelectTask<>(order, limit, 0, a.length).compute();
+        } else {
+            candidates = ForkJoinPool.commonPool().invoke(new SelectTask<>(order, limit, 0, a.length));
+        }
+
+        Integer[] sorted = new Integer[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            sorted[i] = candidates[i];
+        }
+        Arrays.sort(sorted, (x, y) -> order.compare(x, y));
+
+        List<T> result = new ArrayList<>(sorted.length);
+        for (int index : sorted) {
+            result.add(a[index]);
+        }
+        return result;
+    }
+
+    public static <T extends Comparable<? super T>> void select(T[] a, int n) {
+        select(a, n, Comparator.naturalOrder());
+    }
+
+    public static <T> void select(T[] a, int n, Comparator<? super T> comparator) {
+        Objects.requireNonNull(comparator);
+        if (n < 0 || n >= a.length) {
+            throw new IndexOutOfBoundsException("n: " + n + ", length: " + a.length);
+        }
+        int from = 0;
+        int to = a.length;
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(a.length));
+
+        while (to - from > 16) {
+            if (depthLimit-- == 0) {
+                Arrays.sort(a, from, to, comparator);
+                return;
+            }
+            T pivot = medianOfThree(a, from, (from + to) >>> 1, to - 1, comparator);
+
+            // 피벗과 같은 원소를 가운데로 모으는 3-way 분할. 같은 값이 많아도 구간이 줄어든다.
+            int lt = from;
+            int i = from;
+            int gt = to;
+            while (i < gt) {
+                int c = comparator.compare(a[i], pivot);
+                if (c < 0) {
+                    swap(a, lt++, i++);
+                } else if (c > 0) {
+                    swap(a, i, --gt);
+                } else {
+                    i++;
+                }
+            }
+
+            if (n < lt) {
+                to = lt;
+            } else if (n >= gt) {
+                from = gt;
+            } else {
+                return;
+            }
+        }
+        Arrays.sort(a, from, to, comparator);
+    }
+
+    private static <T> T medianOfThree(T[] a, int i, int j, int k, Comparator<? super T> comparator) {
+        T x = a[i];
+        T y = a[j];
+        T z = a[k];
+        if (comparator.compare(x, y) < 0) {
+            if (comparator.compare(y, z) < 0) {
+                return y;
+            }
+            return comparator.compare(x, z) < 0 ? z : x;
+        }
+        if (comparator.compare(x, z) < 0) {
+            return x;
+        }
+        return comparator.compare(y, z) < 0 ? z : y;
+    }
+
+    private static void swap(Object[] a, int i, int j) {
+        Object tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+
+    /*
+    원소의 순서가 같으면 배열 위치로 순서를 정한다. 모든 인덱스가 서로 다른 순서를 갖게 되어 결과가 결정적이다.
+     */
+    private static final class IndexOrder<T> {
+
+        private final T[] a;
+        private final Comparator<? super T> comparator;
+
+        IndexOrder(T[] a, Comparator<? super T> comparator) {
+            this.a = a;
+            this.comparator = comparator;
+        }
+
+        int compare(int x, int y) {
+            int result = comparator.compare(a[x], a[y]);
+            return result != 0 ? result : Integer.compare(x, y);
+        }
+    }
+
+    /*
+    구간에서 가장 작은 k 개의 인덱스를 구한다. 나머지 순서는 보장하지 않는다.
+     */
+    private static final class SelectTask<T> extends RecursiveTask<int[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final IndexOrder<T> order;
+        private final int k;
+        private final int from;
+        private final int to;
+
+        SelectTask(IndexOrder<T> order, int k, int from, int to) {
+            this.order = order;
+            this.k = k;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                BoundedHeap heap = new BoundedHeap(order, Math.min(k, to - from));
+                for (int i = from; i < to; i++) {
+                    heap.offer(i);
+                }
+                return heap.toArray();
+            }
+            int mid = (from + to) >>> 1;
+            SelectTask<T> left = new SelectTask<>(order, k, from, mid);
+            left.fork();
+            int[] right = new SelectTask<>(order, k, mid, to).compute();
+            int[] leftResult = left.join();
+
+            BoundedHeap heap = new BoundedHeap(order, Math.min(k, leftResult.length + right.length));
+            for (int index : leftResult) {
+                heap.offer(index);
+            }
+            for (int index : right) {
+                heap.offer(index);
+            }
+            return heap.toArray();
+        }
+    }
+
+    /*
+    지금까지 본 원소 중 가장 작은 k 개를 담는 최대 힙. 루트가 k 개 중 가장 큰 원소다.
+     */
+    private static final class BoundedHeap {
+
+        private final IndexOrder<?> order;
+        private final int[] heap;
+        private int size;
+
+        BoundedHeap(IndexOrder<?> order, int k) {
+            this.order = order;
+            this.heap = new int[k];
+        }
+
+        void offer(int index) {
+            if (size < heap.length) {
+                heap[size] = index;
+                siftUp(size++);
+            } else if (order.compare(index, heap[0]) < 0) {
+                heap[0] = index;
+                siftDown(0);
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(heap, size);
+        }
+
+        private void siftUp(int i) {
+            int index = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (order.compare(heap[parent], index) >= 0) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = index;
+        }
+
+        private void siftDown(int i) {
+            int index = heap[i];
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < size && order.compare(heap[right], heap[child]) > 0) {
+                    child = right;
+                }
+                if (order.compare(index, heap[child]) >= 0) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = index;
+        }
+    }
+}
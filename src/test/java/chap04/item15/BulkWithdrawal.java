@@ -0,0 +1,58 @@
+package chap04.item15;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/*
+withdrawalMembers 로 여러 회원을 한 번에 탈퇴시키고, 안 되면 withdrawalMember 로 한 명씩 처리하도록 알려준다.
+
+- supportsBulkWithdrawal() 이 false 인 구현체에는 withdrawalMembers 를 부르지 않는다.
+  mock 이나 데코레이터처럼 withdrawalMembers 가 아무 일도 하지 않을 수 있는 구현체를 bulk 로 오인하지 않기 위해서다.
+- withdrawalMembers 가 던진 RuntimeException 은 그 배치만 회원별 처리로 넘긴다.
+  withdrawalMembers 는 전부 성공하거나 전부 반영하지 않아야(한 트랜잭션) 회원별로 다시 처리해도 안전하다.
+
+startProcess() 와 WithdrawalProcessor 가 함께 쓰는 패키지 내부 구현이다.
+ */
+final class BulkWithdrawal {
+
+    static final int DEFAULT_BATCH_SIZE = 1_000;
+
+    private final WithdrawalService service;
+    private final boolean supported;
+
+    BulkWithdrawal(WithdrawalService service) {
+        this.service = service;
+        this.supported = service.supportsBulkWithdrawal();
+    }
+
+    boolean isSupported() {
+        return supported;
+    }
+
+    /*
+    batch 를 한 번에 탈퇴시켰으면 true, 회원별로 처리해야 하면 false.
+     */
+    boolean tryWithdrawal(List<Member> batch) {
+        if (!supported || batch.isEmpty()) {
+            return false;
+        }
+        try {
+            service.withdrawalMembers(batch);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    static <T> void forEachBatch(Iterator<T> iterator, int batchSize, Consumer<List<T>> action) {
+        while (iterator.hasNext()) {
+            List<T> batch = new ArrayList<>(batchSize);
+            while (batch.size() < batchSize && iterator.hasNext()) {
+                batch.add(iterator.next());
+            }
+            action.accept(batch);
+        }
+    }
+}
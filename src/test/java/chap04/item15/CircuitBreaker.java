@@ -0,0 +1,98 @@
+package chap04.item15;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/*
+연속으로 failureThreshold 번 실패하면 openDuration 동안 호출을 막는(OPEN) 회로 차단기.
+
+- CLOSED : 호출을 통과시키고 연속 실패 수를 센다.
+- OPEN : 원격 서버를 기다리지 않고 바로 OpenException 을 던진다. openDuration 이 지나면 HALF_OPEN 이 된다.
+- HALF_OPEN : 시험 호출 하나만 통과시킨다. 성공하면 CLOSED, 실패하면 다시 OPEN 이 된다.
+
+acquirePermission 으로 허가를 받은 호출은 어떻게 끝나든 onSuccess, onFailure, releasePermission 중 하나를 불러야 한다.
+그러지 않으면 HALF_OPEN 의 시험 호출이 끝나지 않은 것으로 남아 회로가 영영 닫히지 않는다.
+
+느려지거나 죽은 서버에 계속 요청을 쌓지 않고, 서버가 회복할 시간을 준다.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    public static class OpenException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        OpenException() {
+            super("circuit breaker is open");
+        }
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold: " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /*
+    호출해도 되면 그대로 돌아오고, 막혀 있으면 OpenException 을 던진다.
+     */
+    public synchronized void acquirePermission() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openNanos) {
+                throw new OpenException();
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                throw new OpenException();
+            }
+            trialInFlight = true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+            consecutiveFailures = 0;
+            trialInFlight = false;
+        }
+    }
+
+    /*
+    성공도 실패도 기록하지 않고 허가만 돌려준다. 시험 호출이 Error 처럼 실패로 세지 않는 이유로 끝났을 때 부르면
+    다음 호출이 다시 시험 호출이 될 수 있다.
+     */
+    public synchronized void releasePermission() {
+        trialInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,236 @@
+package chap04.item15;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/*
+아무 WithdrawalService 나 감싸서 호출마다 걸린 시간과 처리량, 오류 수를 기록하는 데코레이터.
+
+WithdrawalService service = new InstrumentedWithdrawalService("overseas", new OverseasWithdrawalService());
+service.startProcess();
+((InstrumentedWithdrawalService) service).snapshot();
+
+- getMembers, streamMembers, withdrawalMember, withdrawalMembers, startProcess 마다 LatencyHistogram 과 오류 수를 둔다.
+- 기록은 모두 잠금 없이 LongAdder, AtomicLongArray 로 하므로 여러 작업 스레드가 동시에 불러도 서로 기다리지 않는다.
+- 계측만 하는 데코레이터이므로 startProcess() 와 startProcess(processor) 도 감싼 서비스에 그대로 넘기고 걸린 시간만 잰다.
+  감싼 서비스가 INSERT ~ SELECT 한 번처럼 startProcess 를 따로 구현했어도 그 구현이 그대로 실행된다.
+  이때 감싼 서비스 안에서 부르는 withdrawalMember 등은 이 데코레이터를 거치지 않으므로 기록되지 않는다.
+- 처리 안의 호출까지 하나하나 기록하려면 ProcessMode.PER_CALL 로 만든다. 그러면 startProcess 는 WithdrawalService 의
+  기본 구현을 이 데코레이터 위에서 실행한다. 감싼 서비스가 재정의한 startProcess 는 쓰이지 않으므로
+  startProcess 를 재정의하지 않은 서비스(또는 mock)에만 쓴다.
+- withdrawalMembers 의 UnsupportedOperationException 은 선택적 기능이 없다는 뜻이므로 오류로 세지 않는다.
+ */
+public class InstrumentedWithdrawalService implements WithdrawalService {
+
+    public enum Operation {
+        GET_MEMBERS, STREAM_MEMBERS, WITHDRAWAL_MEMBER, WITHDRAWAL_MEMBERS, START_PROCESS
+    }
+
+    public enum ProcessMode {
+        // 감싼 서비스의 startProcess 를 부르고 걸린 시간만 잰다.
+        DELEGATE,
+        // WithdrawalService 의 기본 startProcess 를 이 데코레이터 위에서 실행해 그 안의 호출을 모두 기록한다.
+        PER_CALL
+    }
+
+    private final String name;
+    private final WithdrawalService delegate;
+    private final ProcessMode processMode;
+    private final long createdNanos = System.nanoTime();
+    private final LatencyHistogram[] latencies = new LatencyHistogram[Operation.values().length];
+    private final LongAdder[] errors = new LongAdder[Operation.values().length];
+    private final LongAdder withdrawnMembers = new LongAdder();
+
+    public InstrumentedWithdrawalService(WithdrawalService delegate) {
+        this(delegate.getClass().getSimpleName(), delegate);
+    }
+
+    public InstrumentedWithdrawalService(String name, WithdrawalService delegate) {
+        this(name, delegate, ProcessMode.DELEGATE);
+    }
+
+    public InstrumentedWithdrawalService(String name, WithdrawalService delegate, ProcessMode processMode) {
+        this.name = Objects.requireNonNull(name);
+        this.delegate = Objects.requireNonNull(delegate);
+        this.processMode = Objects.requireNonNull(processMode);
+        for (Operation operation : Operation.values()) {
+            latencies[operation.ordinal()] = new LatencyHistogram();
+            errors[operation.ordinal()] = new LongAdder();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String withdrawalMember(Member member) {
+        String result = measure(Operation.WITHDRAWAL_MEMBER, () -> delegate.withdrawalMember(member));
+        withdrawnMembers.increment();
+        return result;
+    }
+
+    @Override
+    public boolean supportsBulkWithdrawal() {
+        return delegate.supportsBulkWithdrawal();
+    }
+
+    @Override
+    public void withdrawalMembers(Collection<Member> members) {
+        measure(Operation.WITHDRAWAL_MEMBERS, () -> {
+            delegate.withdrawalMembers(members);
+            return null;
+        });
+        withdrawnMembers.add(members.size());
+    }
+
+    @Override
+    public List<Member> getMembers() {
+        return measure(Operation.GET_MEMBERS, delegate::getMembers);
+    }
+
+    @Override
+    public Stream<Member> streamMembers() {
+        return measure(Operation.STREAM_MEMBERS, delegate::streamMembers);
+    }
+
+    @Override
+    public MemberSource memberSource() {
+        return delegate.memberSource();
+    }
+
+    @Override
+    public String startProcess() {
+        if (processMode == ProcessMode.PER_CALL) {
+            return measure(Operation.START_PROCESS, WithdrawalService.super::startProcess);
+        }
+        return measure(Operation.START_PROCESS, delegate::startProcess);
+    }
+
+    @Override
+    public WithdrawalResult startProcess(WithdrawalProcessor processor) {
+        if (processMode == ProcessMode.PER_CALL) {
+            return measure(Operation.START_PROCESS, () -> WithdrawalService.super.startProcess(processor));
+        }
+        return measure(Operation.START_PROCESS, () -> delegate.startProcess(processor));
+    }
+
+    private <R> R measure(Operation operation, Supplier<R> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } catch (UnsupportedOperationException e) {
+            throw e;
+        } catch (RuntimeException | Error e) {
+            errors[operation.ordinal()].increment();
+            throw e;
+        } finally {
+            latencies[operation.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    public Snapshot snapshot() {
+        OperationSnapshot[] operations = new OperationSnapshot[Operation.values().length];
+        for (Operation operation : Operation.values()) {
+            operations[operation.ordinal()] = new OperationSnapshot(operation,
+                latencies[operation.ordinal()].snapshot(), errors[operation.ordinal()].sum());
+        }
+        return new Snapshot(name, Duration.ofNanos(System.nanoTime() - createdNanos), withdrawnMembers.sum(),
+            operations);
+    }
+
+    public static final class Snapshot {
+
+        private final String name;
+        private final Duration uptime;
+        private final long withdrawnMembers;
+        private final OperationSnapshot[] operations;
+
+        private Snapshot(String name, Duration uptime, long withdrawnMembers, OperationSnapshot[] operations) {
+            this.name = name;
+            this.uptime = uptime;
+            this.withdrawnMembers = withdrawnMembers;
+            this.operations = operations;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Duration getUptime() {
+            return uptime;
+        }
+
+        public long getWithdrawnMembers() {
+            return withdrawnMembers;
+        }
+
+        /*
+        생성 이후 초당 탈퇴 처리한 회원 수
+         */
+        public double getThroughput() {
+            long nanos = uptime.toNanos();
+            return nanos == 0 ? 0 : withdrawnMembers * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+        }
+
+        public OperationSnapshot get(Operation operation) {
+            return operations[operation.ordinal()];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder()
+                .append("withdrawal[").append(name).append("] withdrawn=").append(withdrawnMembers)
+                .append(String.format(" throughput=%.1f/s", getThroughput()));
+            for (OperationSnapshot operation : operations) {
+                if (operation.getCount() > 0) {
+                    sb.append(' ').append(operation);
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    public static final class OperationSnapshot {
+
+        private final Operation operation;
+        private final LatencyHistogram.Snapshot latency;
+        private final long errors;
+
+        private OperationSnapshot(Operation operation, LatencyHistogram.Snapshot latency, long errors) {
+            this.operation = operation;
+            this.latency = latency;
+            this.errors = errors;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public long getCount() {
+            return latency.getCount();
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s{count=%d, errors=%d, p50=%.3fms, p99=%.3fms, max=%.3fms}", operation, getCount(),
+                errors, latency.getValueAtPercentile(50, TimeUnit.MILLISECONDS),
+                latency.getValueAtPercentile(99, TimeUnit.MILLISECONDS),
+                (double) latency.getMax() / TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+}
@@ -6,12 +6,35 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 /*
 
@@ -197,5 +220,711 @@ public class Item15Test {
 
         //then
         assertThat(result).isEqualTo("FINISHED");
+        verify(testWithDrawalService).withdrawalMember(member);
+    }
+
+    /*
+    회원 저장소 대신 쓰는 구현체. failing 에 해당하는 회원은 예외를 던지고, slow 에 해당하는 회원은 오래 걸린다.
+     */
+    private static class FakeWithdrawalService implements WithdrawalService {
+
+        private final List<Member> members;
+        private final Predicate<Member> failing;
+        private final Predicate<Member> slow;
+        final Set<String> withdrawn = ConcurrentHashMap.newKeySet();
+
+        FakeWithdrawalService(List<Member> members, Predicate<Member> failing, Predicate<Member> slow) {
+            this.members = members;
+            this.failing = failing;
+            this.slow = slow;
+        }
+
+        @Override
+        public String withdrawalMember(Member member) {
+            if (failing.test(member)) {
+                throw new IllegalStateException("withdrawal failed: " + member.getName());
+            }
+            if (slow.test(member)) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("interrupted: " + member.getName());
+                }
+            }
+            withdrawn.add(member.getName());
+            return member.getName();
+        }
+
+        @Override
+        public List<Member> getMembers() {
+            return members;
+        }
+    }
+
+    private static List<Member> members(int count) {
+        List<Member> members = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            members.add(Member.builder().name("member-" + i).age(20 + i % 50).build());
+        }
+        return members;
+    }
+
+    @Test
+    @TestDescription("병렬 배치 처리 결과로 성공, 실패 건수를 집계한다.")
+    public void 병렬_배치_탈퇴() {
+        FakeWithdrawalService service = new FakeWithdrawalService(members(10_000),
+            member -> member.getName().endsWith("00"), member -> false);
+        WithdrawalProcessor processor = WithdrawalProcessor.builder()
+            .parallelism(4)
+            .batchSize(128)
+            .build();
+
+        WithdrawalResult result = service.startProcess(processor);
+
+        assertThat(result.getSucceeded()).isEqualTo(9_901);
+        assertThat(result.getFailed()).isEqualTo(99);
+        assertThat(result.getTimedOut()).isZero();
+        assertThat(service.withdrawn).hasSize(9_901);
+    }
+
+    @Test
+    @TestDescription("제한 시간을 넘긴 회원은 중단하고 나머지 회원은 계속 처리한다.")
+    public void 회원별_제한_시간() {
+        FakeWithdrawalService service = new FakeWithdrawalService(members(20),
+            member -> false, member -> member.getName().equals("member-3"));
+        WithdrawalProcessor processor = WithdrawalProcessor.builder()
+            .parallelism(2)
+            .batchSize(5)
+            .memberTimeout(Duration.ofMillis(100))
+            .build();
+
+        WithdrawalResult result = service.startProcess(processor);
+
+        assertThat(result.getTimedOut()).isEqualTo(1);
+        assertThat(result.getSucceeded()).isEqualTo(19);
+        assertThat(result.getElapsed()).isLessThan(Duration.ofSeconds(5));
+        assertThat(service.withdrawn).doesNotContain("member-3");
+    }
+
+    @Test
+    @TestDescription("제시간에 끝나 취소한 제한 시간 작업은 감시 스레드의 큐에 남지 않는다.")
+    public void 제한_시간_작업_취소() {
+        ScheduledThreadPoolExecutor watchdog = WithdrawalProcessor.newWatchdog();
+        try {
+            for (int i = 0; i < 10_000; i++) {
+                watchdog.schedule(() -> {
+                }, 1, TimeUnit.HOURS).cancel(false);
+            }
+
+            assertThat(watchdog.getQueue()).isEmpty();
+        } finally {
+            watchdog.shutdownNow();
+        }
+    }
+
+    /*
+    회원 저장소 대신 쓰는 메모리 저장소. token 은 다음에 읽을 회원의 위치다.
+     */
+    private static class InMemoryMemberStore implements MemberSource {
+
+        private final List<Member> members;
+        private final AtomicInteger fetchCount = new AtomicInteger();
+
+        InMemoryMemberStore(List<Member> members) {
+            this.members = members;
+        }
+
+        @Override
+        public MemberPage fetch(String token, int pageSize) {
+            fetchCount.incrementAndGet();
+            int from = token == null ? 0 : Integer.parseInt(token);
+            int to = Math.min(members.size(), from + pageSize);
+            List<Member> page = new ArrayList<>(members.subList(from, to));
+            return to == members.size() ? MemberPage.last(page) : MemberPage.of(page, String.valueOf(to));
+        }
+    }
+
+    @Test
+    @TestDescription("페이지 단위로 읽은 회원을 순서대로 내주고, checkpoint 에서 이어서 읽을 수 있다.")
+    public void 회원_커서_이어읽기() {
+        InMemoryMemberStore store = new InMemoryMemberStore(members(1_000));
+        MemberCursor cursor = MemberCursor.open(store, 300);
+
+        List<String> firstRun = new ArrayList<>();
+        for (int i = 0; i < 450; i++) {
+            cursor.tryAdvance(member -> firstRun.add(member.getName()));
+        }
+        MemberCheckpoint checkpoint = cursor.checkpoint();
+
+        assertThat(checkpoint).isEqualTo(MemberCheckpoint.of("300", 150));
+        assertThat(store.fetchCount.get()).isEqualTo(2);
+
+        List<String> secondRun = MemberCursor.open(store, 300, checkpoint).stream()
+            .map(Member::getName)
+            .collect(Collectors.toList());
+
+        assertThat(firstRun).hasSize(450);
+        assertThat(secondRun).hasSize(550);
+        assertThat(secondRun.get(0)).isEqualTo("member-450");
+        assertThat(secondRun.get(549)).isEqualTo("member-999");
+    }
+
+    @Test
+    @TestDescription("getMembers() 로 전체 목록을 만들지 않고 페이지 단위로 읽으며 탈퇴를 처리한다.")
+    public void 페이지_단위_탈퇴() {
+        InMemoryMemberStore store = new InMemoryMemberStore(members(10_000));
+        FakeWithdrawalService service = new FakeWithdrawalService(null, member -> false, member -> false) {
+            @Override
+            public List<Member> getMembers() {
+                throw new UnsupportedOperationException("too many members to materialize");
+            }
+
+            @Override
+            public Stream<Member> streamMembers() {
+                return MemberCursor.stream(store, 250);
+            }
+        };
+        WithdrawalProcessor processor = WithdrawalProcessor.builder()
+            .parallelism(4)
+            .batchSize(100)
+            .build();
+
+        WithdrawalResult result = service.startProcess(processor);
+
+        assertThat(result.getSucceeded()).isEqualTo(10_000);
+        assertThat(service.withdrawn).hasSize(10_000);
+        assertThat(store.fetchCount.get()).isEqualTo(40);
+    }
+
+    @Test
+    @TestDescription("처리가 끝난 배치까지만 checkpoint 를 기록하고, 중단됐다면 그 위치부터 이어서 처리한다.")
+    public void 탈퇴_처리_이어하기() {
+        InMemoryMemberStore store = new InMemoryMemberStore(members(1_000));
+        FakeWithdrawalService crashing = new FakeWithdrawalService(null, member -> false, member -> false) {
+            @Override
+            public String withdrawalMember(Member member) {
+                if (member.getName().equals("member-537")) {
+                    throw new Error("process crashed");
+                }
+                return super.withdrawalMember(member);
+            }
+
+            @Override
+            public MemberSource memberSource() {
+                return store;
+            }
+        };
+        List<MemberCheckpoint> checkpoints = new ArrayList<>();
+        WithdrawalProcessor processor = WithdrawalProcessor.builder()
+            .parallelism(4)
+            .batchSize(100)
+            .onCheckpoint(checkpoints::add)
+            .build();
+
+        assertThatThrownBy(() -> crashing.startProcess(processor)).isInstanceOf(IllegalStateException.class);
+
+        // member-537 이 든 배치는 끝나지 않았으므로 위치는 그 배치 앞에서 멈춘다.
+        MemberCheckpoint last = checkpoints.get(checkpoints.size() - 1);
+        int processed = Integer.parseInt(last.getToken());
+        assertThat(last.getOffset()).isEqualTo(0);
+        assertThat(processed).isLessThanOrEqualTo(500);
+        for (int i = 0; i < processed; i++) {
+            assertThat(crashing.withdrawn).contains("member-" + i);
+        }
+
+        FakeWithdrawalService resumed = new FakeWithdrawalService(null, member -> false, member -> false) {
+            @Override
+            public MemberSource memberSource() {
+                return store;
+            }
+        };
+        WithdrawalResult result = resumed.startProcess(WithdrawalProcessor.builder()
+            .parallelism(4)
+            .batchSize(100)
+            .resumeFrom(last)
+            .build());
+
+        assertThat(result.getSucceeded()).isEqualTo(1_000 - processed);
+        assertThat(result.getCheckpoint()).contains(MemberCheckpoint.of("900", 100));
+        assertThat(resumed.withdrawn).doesNotContain("member-" + (processed - 1)).contains("member-999");
+    }
+
+    /*
+    withdrawalMembers 를 재정의한 구현체. bulkFailing 에 해당하는 회원이 섞인 배치는 통째로 실패한다.
+     */
+    private static class BulkWithdrawalService extends FakeWithdrawalService {
+
+        private final Predicate<Member> bulkFailing;
+        private final AtomicInteger bulkCalls = new AtomicInteger();
+        private final AtomicInteger memberCalls = new AtomicInteger();
+
+        BulkWithdrawalService(List<Member> members, Predicate<Member> bulkFailing) {
+            super(members, member -> false, member -> false);
+            this.bulkFailing = bulkFailing;
+        }
+
+        @Override
+        public String withdrawalMember(Member member) {
+            memberCalls.incrementAndGet();
+            return super.withdrawalMember(member);
+        }
+
+        @Override
+        public boolean supportsBulkWithdrawal() {
+            return true;
+        }
+
+        @Override
+        public void withdrawalMembers(Collection<Member> members) {
+            bulkCalls.incrementAndGet();
+            if (members.stream().anyMatch(bulkFailing)) {
+                throw new IllegalStateException("bulk withdrawal rolled back");
+            }
+            members.forEach(member -> withdrawn.add(member.getName()));
+        }
+    }
+
+    @Test
+    @TestDescription("withdrawalMembers 를 재정의하면 배치 단위로 처리하고, 실패한 배치만 회원별로 다시 처리한다.")
+    public void 일괄_탈퇴_우선() {
+        BulkWithdrawalService service = new BulkWithdrawalService(members(3_000),
+            member -> member.getName().equals("member-1500"));
+
+        String result = service.startProcess();
+
+        assertThat(result).isEqualTo("FINISHED");
+        assertThat(service.bulkCalls.get()).isEqualTo(3);
+        assertThat(service.memberCalls.get()).isEqualTo(1_000);
+        assertThat(service.withdrawn).hasSize(3_000);
+    }
+
+    @Test
+    @TestDescription("WithdrawalProcessor 도 일괄 탈퇴를 우선 사용한다.")
+    public void 병렬_일괄_탈퇴() {
+        BulkWithdrawalService service = new BulkWithdrawalService(members(10_000),
+            member -> member.getName().equals("member-42"));
+        WithdrawalProcessor processor = WithdrawalProcessor.builder()
+            .parallelism(4)
+            .batchSize(500)
+            .memberTimeout(Duration.ofSeconds(1))
+            .build();
+
+        WithdrawalResult result = service.startProcess(processor);
+
+        assertThat(result.getSucceeded()).isEqualTo(10_000);
+        assertThat(service.bulkCalls.get()).isEqualTo(20);
+        assertThat(service.memberCalls.get()).isEqualTo(500);
+    }
+
+    /*
+    원격 호출처럼 latencyMillis 동안 기다리는 구현체. 동시에 실행 중인 호출 수를 기록한다.
+     */
+    private static class LatencyStubService implements WithdrawalService {
+
+        private final List<Member> members;
+        private final long latencyMillis;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxActive = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+
+        LatencyStubService(List<Member> members, long latencyMillis) {
+            this.members = members;
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public String withdrawalMember(Member member) {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(latencyMillis);
+                completed.incrementAndGet();
+                return member.getName();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted: " + member.getName());
+            } finally {
+                active.decrementAndGet();
+            }
+        }
+
+        @Override
+        public List<Member> getMembers() {
+            return members;
+        }
+    }
+
+    @Test
+    @TestDescription("회원마다 (가상) 스레드를 쓰되 동시에 실행되는 호출은 maxConcurrency 개까지다.")
+    public void 가상_스레드_탈퇴() {
+        LatencyStubService service = new LatencyStubService(members(1_000), 20);
+        WithdrawalProcessor processor = WithdrawalProcessor.builder()
+            .batchSize(100)
+            .virtualThreads(200)
+            .build();
+
+        WithdrawalResult result = service.startProcess(processor);
+
+        // 한 번에 한 명씩이면 20초가 걸린다.
+        assertThat(result.getSucceeded()).isEqualTo(1_000);
+        assertThat(service.maxActive.get()).isBetween(2, 200);
+        assertThat(result.getElapsed()).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @TestDescription("처리 중에 interrupt 되면 실행 중인 호출을 모두 끝낸 뒤에 돌아온다.")
+    public void 가상_스레드_취소() throws InterruptedException {
+        LatencyStubService service = new LatencyStubService(members(10_000), 10_000);
+        WithdrawalProcessor processor = WithdrawalProcessor.builder()
+            .virtualThreads(50)
+            .build();
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        AtomicInteger activeOnReturn = new AtomicInteger(-1);
+
+        Thread caller = new Thread(() -> {
+            try {
+                service.startProcess(processor);
+            } catch (Throwable t) {
+                thrown.set(t);
+            } finally {
+                activeOnReturn.set(service.active.get());
+            }
+        });
+        caller.start();
+        while (service.active.get() < 50) {
+            Thread.sleep(1);
+        }
+        caller.interrupt();
+        caller.join(5_000);
+
+        assertThat(caller.isAlive()).isFalse();
+        assertThat(thrown.get()).isInstanceOf(CancellationException.class);
+        assertThat(activeOnReturn.get()).isZero();
+        assertThat(service.completed.get()).isZero();
+    }
+
+    @Test
+    @TestDescription("interrupt 를 무시하는 호출이 있어도 정해진 시간만 기다리고, 끝나지 않은 작업 수를 알린다.")
+    public void 종료_대기_시간_제한() throws InterruptedException {
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger released = new AtomicInteger();
+        FakeWithdrawalService service = new FakeWithdrawalService(members(2), member -> false, member -> false) {
+            @Override
+            public String withdrawalMember(Member member) {
+                started.incrementAndGet();
+                while (released.get() == 0) {
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        // interrupt 를 무시하는 원격 호출 흉내
+                    }
+                }
+                return super.withdrawalMember(member);
+            }
+        };
+        WithdrawalProcessor processor = WithdrawalProcessor.builder()
+            .parallelism(2)
+            .batchSize(1)
+            .memberTimeout(Duration.ofMillis(100))
+            .build();
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+
+        Thread caller = new Thread(() -> {
+            try {
+                service.startProcess(processor);
+            } catch (Throwable t) {
+                thrown.set(t);
+            }
+        });
+        caller.start();
+        while (started.get() < 2) {
+            Thread.sleep(1);
+        }
+        caller.interrupt();
+        caller.join(5_000);
+        released.set(1);
+
+        assertThat(caller.isAlive()).isFalse();
+        assertThat(thrown.get()).isInstanceOf(CancellationException.class);
+        assertThat(thrown.get().getSuppressed()).hasSize(1);
+        assertThat(thrown.get().getSuppressed()[0])
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageStartingWith("2 withdrawal tasks still running");
+    }
+
+    @Test
+    @TestDescription("로그 선형 히스토그램의 백분위 값은 3% 오차 안에 든다.")
+    public void 지연_시간_히스토그램() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 1_000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.getCount()).isEqualTo(1_000);
+        assertThat(snapshot.getMax()).isEqualTo(TimeUnit.MICROSECONDS.toNanos(1_000));
+        assertThat(snapshot.getValueAtPercentile(50, TimeUnit.MICROSECONDS)).isCloseTo(500, within(15.0));
+        assertThat(snapshot.getValueAtPercentile(99, TimeUnit.MICROSECONDS)).isCloseTo(990, within(30.0));
+    }
+
+    @Test
+    @TestDescription("구현체가 없어도 mock 서비스로 계측 데코레이터의 기록과 보고를 검증할 수 있다.")
+    public void 계측_데코레이터() throws InterruptedException {
+        WithdrawalService service = mock(WithdrawalService.class);
+        Member failing = Member.builder().name("failing").age(30).build();
+        List<Member> members = Arrays.asList(
+            Member.builder().name("NJ").age(28).build(),
+            Member.builder().name("JY").age(29).build(),
+            failing);
+        doReturn(members).when(service).getMembers();
+        doReturn("OK").when(service).withdrawalMember(any());
+        doThrow(new IllegalStateException("remote call failed")).when(service).withdrawalMember(failing);
+        InstrumentedWithdrawalService instrumented = new InstrumentedWithdrawalService("mock", service,
+            InstrumentedWithdrawalService.ProcessMode.PER_CALL);
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+
+        try (WithdrawalMetricsReporter reporter = WithdrawalMetricsReporter.start(Duration.ofMillis(10), lines::add,
+            instrumented)) {
+            assertThatThrownBy(instrumented::startProcess).isInstanceOf(IllegalStateException.class);
+
+            InstrumentedWithdrawalService.Snapshot snapshot = instrumented.snapshot();
+            assertThat(snapshot.getWithdrawnMembers()).isEqualTo(2);
+            assertThat(snapshot.get(InstrumentedWithdrawalService.Operation.GET_MEMBERS).getCount()).isEqualTo(1);
+            assertThat(snapshot.get(InstrumentedWithdrawalService.Operation.WITHDRAWAL_MEMBERS).getErrors()).isZero();
+            assertThat(snapshot.get(InstrumentedWithdrawalService.Operation.WITHDRAWAL_MEMBER).getCount()).isEqualTo(3);
+            assertThat(snapshot.get(InstrumentedWithdrawalService.Operation.WITHDRAWAL_MEMBER).getErrors()).isEqualTo(1);
+            assertThat(snapshot.get(InstrumentedWithdrawalService.Operation.START_PROCESS).getErrors()).isEqualTo(1);
+
+            // 처리가 끝난 뒤의 상태를 바로 보고한다. 처리 도중에 남긴 줄이 앞에 있을 수 있으므로 그 줄이 나올 때까지 읽는다.
+            reporter.report();
+            String line = lines.poll(5, TimeUnit.SECONDS);
+            while (line != null && !line.contains("WITHDRAWAL_MEMBER{count=3")) {
+                line = lines.poll(5, TimeUnit.SECONDS);
+            }
+            assertThat(line).startsWith("withdrawal[mock] withdrawn=2")
+                .contains("WITHDRAWAL_MEMBER{count=3, errors=1");
+        }
+    }
+
+    @Test
+    @TestDescription("PER_CALL 로 만들면 WithdrawalProcessor 로 처리해도 계측 데코레이터를 거쳐 호출이 기록된다.")
+    public void 계측_데코레이터_병렬_처리() {
+        FakeWithdrawalService service = new FakeWithdrawalService(members(100), member -> false, member -> false);
+        InstrumentedWithdrawalService instrumented = new InstrumentedWithdrawalService("parallel", service,
+            InstrumentedWithdrawalService.ProcessMode.PER_CALL);
+
+        WithdrawalResult result = instrumented.startProcess(WithdrawalProcessor.builder()
+            .parallelism(4)
+            .batchSize(10)
+            .build());
+
+        InstrumentedWithdrawalService.Snapshot snapshot = instrumented.snapshot();
+        assertThat(result.getSucceeded()).isEqualTo(100);
+        assertThat(snapshot.getWithdrawnMembers()).isEqualTo(100);
+        assertThat(snapshot.get(InstrumentedWithdrawalService.Operation.START_PROCESS).getCount()).isEqualTo(1);
+        assertThat(snapshot.get(InstrumentedWithdrawalService.Operation.WITHDRAWAL_MEMBER).getCount()).isEqualTo(100);
+    }
+
+    @Test
+    @TestDescription("계측 데코레이터는 감싼 서비스가 따로 구현한 startProcess 를 바꾸지 않고 걸린 시간만 잰다.")
+    public void 계측_데코레이터_startProcess_위임() {
+        AtomicInteger bulkRuns = new AtomicInteger();
+        FakeWithdrawalService service = new FakeWithdrawalService(members(100), member -> false, member -> false) {
+            @Override
+            public String startProcess() {
+                // INSERT ~ SELECT 한 번으로 모든 대상을 탈퇴시키는 구현
+                bulkRuns.incrementAndGet();
+                return "BULK_FINISHED";
+            }
+        };
+        InstrumentedWithdrawalService instrumented = new InstrumentedWithdrawalService("bulk", service);
+
+        assertThat(instrumented.startProcess()).isEqualTo("BULK_FINISHED");
+
+        InstrumentedWithdrawalService.Snapshot snapshot = instrumented.snapshot();
+        assertThat(bulkRuns.get()).isEqualTo(1);
+        assertThat(service.withdrawn).isEmpty();
+        assertThat(snapshot.get(InstrumentedWithdrawalService.Operation.START_PROCESS).getCount()).isEqualTo(1);
+        assertThat(snapshot.get(InstrumentedWithdrawalService.Operation.WITHDRAWAL_MEMBER).getCount()).isZero();
+        assertThat(snapshot.get(InstrumentedWithdrawalService.Operation.GET_MEMBERS).getCount()).isZero();
+    }
+
+    /*
+    지연과 실패를 주입하는 구현체. 회원마다 처음 failuresBeforeSuccess 번은 실패하고, 호출마다 latencyMillis 만큼 걸린다.
+     */
+    private static class FlakyWithdrawalService implements WithdrawalService {
+
+        private final List<Member> members;
+        private final int failuresBeforeSuccess;
+        private final long latencyMillis;
+        private final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger pulled = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger maxBacklog = new AtomicInteger();
+
+        FlakyWithdrawalService(List<Member> members, int failuresBeforeSuccess, long latencyMillis) {
+            this.members = members;
+            this.failuresBeforeSuccess = failuresBeforeSuccess;
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public String withdrawalMember(Member member) {
+            calls.incrementAndGet();
+            maxBacklog.accumulateAndGet(pulled.get() - completed.get(), Math::max);
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted");
+            }
+            int attempt = attempts.computeIfAbsent(member.getName(), name -> new AtomicInteger()).incrementAndGet();
+            if (attempt <= failuresBeforeSuccess) {
+                throw new IllegalStateException("downstream unavailable");
+            }
+            completed.incrementAndGet();
+            return member.getName();
+        }
+
+        @Override
+        public List<Member> getMembers() {
+            return members;
+        }
+
+        @Override
+        public Stream<Member> streamMembers() {
+            return members.stream().peek(member -> pulled.incrementAndGet());
+        }
+    }
+
+    @Test
+    @TestDescription("일시적인 실패는 지수 백오프로 다시 시도해서 성공시킨다.")
+    public void 재시도() {
+        FlakyWithdrawalService flaky = new FlakyWithdrawalService(members(50), 2, 0);
+        WithdrawalService service = ResilientWithdrawalService.builder(flaky)
+            .retryPolicy(RetryPolicy.exponentialBackoff(3, Duration.ofMillis(1), Duration.ofMillis(4)))
+            .build();
+
+        WithdrawalResult result = service.startProcess(WithdrawalProcessor.builder().parallelism(4).build());
+
+        assertThat(result.isAllSucceeded()).isTrue();
+        assertThat(result.getSucceeded()).isEqualTo(50);
+        assertThat(flaky.calls.get()).isEqualTo(150);
+        assertThat(flaky.completed.get()).isEqualTo(50);
+    }
+
+    @Test
+    @TestDescription("재시도 대기 시간은 지수적으로 늘어나되 maxDelay 를 넘지 않는다.")
+    public void 재시도_대기_시간() {
+        RetryPolicy policy = RetryPolicy.exponentialBackoff(10, Duration.ofMillis(10), Duration.ofMillis(50));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(policy.delayNanos(1)).isBetween(0L, TimeUnit.MILLISECONDS.toNanos(10));
+            assertThat(policy.delayNanos(3)).isBetween(0L, TimeUnit.MILLISECONDS.toNanos(40));
+            assertThat(policy.delayNanos(9)).isBetween(0L, TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        assertThat(policy.shouldRetry(9, new IllegalStateException())).isTrue();
+        assertThat(policy.shouldRetry(10, new IllegalStateException())).isFalse();
+        assertThat(policy.shouldRetry(1, new CircuitBreaker.OpenException())).isFalse();
+    }
+
+    @Test
+    @TestDescription("연속으로 실패하면 회로가 열려 원격 호출 없이 바로 실패하고, 시간이 지나면 시험 호출로 닫힌다.")
+    public void 회로_차단기() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofSeconds(30), clock::get);
+        FlakyWithdrawalService flaky = new FlakyWithdrawalService(members(1), 5, 0);
+        WithdrawalService service = ResilientWithdrawalService.builder(flaky)
+            .circuitBreaker(breaker)
+            .build();
+        Member member = flaky.members.get(0);
+
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> service.withdrawalMember(member)).isInstanceOf(RuntimeException.class);
+        }
+        assertThat(flaky.calls.get()).isEqualTo(3);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        assertThatThrownBy(() -> service.withdrawalMember(member)).isInstanceOf(IllegalStateException.class);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        flaky.attempts.get(member.getName()).set(5);
+        assertThat(service.withdrawalMember(member)).isEqualTo(member.getName());
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @TestDescription("시험 호출이 Error 로 끝나도 허가를 돌려주어 다음 호출이 다시 시험 호출이 된다.")
+    public void 회로_차단기_시험_호출_반환() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofSeconds(30), clock::get);
+        AtomicInteger calls = new AtomicInteger();
+        FakeWithdrawalService crashing = new FakeWithdrawalService(null, member -> false, member -> false) {
+            @Override
+            public String withdrawalMember(Member member) {
+                int call = calls.incrementAndGet();
+                if (call == 1) {
+                    throw new IllegalStateException("downstream unavailable");
+                }
+                if (call == 2) {
+                    throw new AssertionError("trial call crashed");
+                }
+                return super.withdrawalMember(member);
+            }
+        };
+        WithdrawalService service = ResilientWithdrawalService.builder(crashing)
+            .circuitBreaker(breaker)
+            .build();
+        Member member = members(1).get(0);
+
+        assertThatThrownBy(() -> service.withdrawalMember(member)).isInstanceOf(IllegalStateException.class);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        assertThatThrownBy(() -> service.withdrawalMember(member)).isInstanceOf(AssertionError.class);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        assertThat(service.withdrawalMember(member)).isEqualTo(member.getName());
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @TestDescription("토큰 버킷은 쌓인 토큰만큼 한 번에 허용하고, 그 뒤로는 채워지는 속도로만 허용한다.")
+    public void 토큰_버킷() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(5, 10, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire()).isTrue();
+        }
+        assertThat(bucket.tryAcquire()).isFalse();
+        assertThat(bucket.tryAcquire(1)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @TestDescription("보호 데코레이터를 WithdrawalProcessor 로 처리하면 처리 중인 배치만큼만 회원을 미리 읽는다.")
+    public void 처리_backpressure() {
+        FlakyWithdrawalService flaky = new FlakyWithdrawalService(members(200), 0, 1);
+        WithdrawalService service = ResilientWithdrawalService.builder(flaky)
+            .rateLimiter(new TokenBucket(10, 5_000))
+            .build();
+
+        WithdrawalResult result = service.startProcess(WithdrawalProcessor.builder()
+            .parallelism(2)
+            .batchSize(2)
+            .build());
+
+        assertThat(result.getSucceeded()).isEqualTo(200);
+        assertThat(flaky.completed.get()).isEqualTo(200);
+        // 처리 중인 배치(parallelism 의 두 배) + 넘기려고 채우는 배치 하나
+        assertThat(flaky.maxBacklog.get()).isLessThanOrEqualTo(2 * 2 * 2 + 2);
     }
 }
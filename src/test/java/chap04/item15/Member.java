@@ -1,11 +1,13 @@
 package chap04.item15;
 
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 @NoArgsConstructor
 @Getter
+@EqualsAndHashCode
 public class Member {
 
     private String name;
@@ -0,0 +1,59 @@
+package chap04.item15;
+
+import java.util.Objects;
+
+/*
+MemberSource 에서 읽을 위치. 저장해 두었다가 MemberCursor.open 이나 WithdrawalProcessor.Builder.resumeFrom 에 넘기면
+그 다음 회원부터 이어서 읽는다.
+
+token 페이지의 앞에서 offset 명은 이미 내준 회원이다.
+ */
+public final class MemberCheckpoint {
+
+    public static final MemberCheckpoint START = new MemberCheckpoint(null, 0);
+
+    private final String token;
+    private final int offset;
+
+    private MemberCheckpoint(String token, int offset) {
+        this.token = token;
+        this.offset = offset;
+    }
+
+    public static MemberCheckpoint of(String token, int offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset: " + offset);
+        }
+        return new MemberCheckpoint(token, offset);
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MemberCheckpoint)) {
+            return false;
+        }
+        MemberCheckpoint that = (MemberCheckpoint) o;
+        return offset == that.offset && Objects.equals(token, that.token);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(token, offset);
+    }
+
+    @Override
+    public String toString() {
+        return "MemberCheckpoint{token=" + token + ", offset=" + offset + '}';
+    }
+}
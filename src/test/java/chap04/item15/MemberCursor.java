@@ -0,0 +1,91 @@
+package chap04.item15;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+MemberSource 를 한 페이지씩 읽으며 회원을 하나씩 내주는 Spliterator.
+
+getMembers() 처럼 전체 목록을 만들지 않으므로 메모리에는 현재 페이지만 올라간다.
+checkpoint() 는 지금까지 내준 회원의 바로 다음 위치다. 내준 회원이 처리까지 끝났다는 뜻은 아니므로,
+여러 스레드로 처리할 때는 WithdrawalProcessor 처럼 배치가 끝난 뒤에 그 배치를 읽은 직후의 checkpoint 를 기록해야 한다.
+
+저장소 커서는 순서대로만 읽을 수 있으므로 trySplit 은 나누지 않는다.
+병렬 처리는 WithdrawalProcessor 가 배치 단위로 한다.
+ */
+public final class MemberCursor implements Spliterator<Member> {
+
+    private final MemberSource source;
+    private final int pageSize;
+
+    private MemberPage page;
+    private String pageToken;
+    private int position;
+
+    private MemberCursor(MemberSource source, int pageSize, MemberCheckpoint checkpoint) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize: " + pageSize);
+        }
+        this.source = Objects.requireNonNull(source);
+        this.pageSize = pageSize;
+        this.pageToken = checkpoint.getToken();
+        this.position = checkpoint.getOffset();
+    }
+
+    public static MemberCursor open(MemberSource source, int pageSize) {
+        return open(source, pageSize, MemberCheckpoint.START);
+    }
+
+    public static MemberCursor open(MemberSource source, int pageSize, MemberCheckpoint checkpoint) {
+        return new MemberCursor(source, pageSize, Objects.requireNonNull(checkpoint));
+    }
+
+    public static Stream<Member> stream(MemberSource source, int pageSize) {
+        return open(source, pageSize).stream();
+    }
+
+    public Stream<Member> stream() {
+        return StreamSupport.stream(this, false);
+    }
+
+    public MemberCheckpoint checkpoint() {
+        if (page != null && position == page.getMembers().size() && !page.isLast()) {
+            return MemberCheckpoint.of(page.getNextToken(), 0);
+        }
+        return MemberCheckpoint.of(pageToken, position);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Member> action) {
+        while (page == null || position >= page.getMembers().size()) {
+            if (page != null) {
+                if (page.isLast()) {
+                    return false;
+                }
+                pageToken = page.getNextToken();
+                position = 0;
+            }
+            page = source.fetch(pageToken, pageSize);
+        }
+        action.accept(page.getMembers().get(position++));
+        return true;
+    }
+
+    @Override
+    public Spliterator<Member> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
@@ -0,0 +1,39 @@
+package chap04.item15;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/*
+MemberSource 가 돌려주는 한 페이지. nextToken 이 null 이면 마지막 페이지다.
+ */
+public final class MemberPage {
+
+    private final List<Member> members;
+    private final String nextToken;
+
+    private MemberPage(List<Member> members, String nextToken) {
+        this.members = Collections.unmodifiableList(Objects.requireNonNull(members));
+        this.nextToken = nextToken;
+    }
+
+    public static MemberPage of(List<Member> members, String nextToken) {
+        return new MemberPage(members, Objects.requireNonNull(nextToken));
+    }
+
+    public static MemberPage last(List<Member> members) {
+        return new MemberPage(members, null);
+    }
+
+    public List<Member> getMembers() {
+        return members;
+    }
+
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public boolean isLast() {
+        return nextToken == null;
+    }
+}
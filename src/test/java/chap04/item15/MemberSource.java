@@ -0,0 +1,14 @@
+package chap04.item15;
+
+/*
+회원 저장소에서 탈퇴 대상 회원을 페이지 단위로 읽어온다.
+
+token 은 저장소가 정하는 페이지 위치다. (마지막으로 읽은 회원 id, 쿼리 커서 등)
+첫 페이지는 null 로 요청하고, 다음 페이지는 앞 페이지의 MemberPage.getNextToken() 으로 요청한다.
+같은 token 으로 다시 요청하면 같은 페이지가 와야 중단된 위치에서 이어서 처리할 수 있다.
+ */
+@FunctionalInterface
+public interface MemberSource {
+
+    MemberPage fetch(String token, int pageSize);
+}
@@ -0,0 +1,177 @@
+package chap04.item15;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/*
+원격 호출이 느려지거나 실패해도 전체 탈퇴 처리가 무너지지 않도록 WithdrawalService 를 감싸는 데코레이터.
+
+WithdrawalService service = ResilientWithdrawalService.builder(new OverseasWithdrawalService())
+    .rateLimiter(new TokenBucket(50, 200))
+    .retryPolicy(RetryPolicy.exponentialBackoff(3, Duration.ofMillis(100), Duration.ofSeconds(2)))
+    .circuitBreaker(new CircuitBreaker(10, Duration.ofSeconds(30)))
+    .build();
+WithdrawalResult result = service.startProcess(WithdrawalProcessor.builder().parallelism(8).build());
+
+withdrawalMember, withdrawalMembers 호출 한 번은
+1. rateLimiter 에서 토큰을 받고 (withdrawalMembers 는 회원 수만큼)
+2. circuitBreaker 가 열려 있으면 바로 실패하고
+3. 실패하면 retryPolicy 대로 기다렸다가 다시 시도한다.
+
+이 데코레이터는 호출 하나하나만 보호한다. startProcess 는 WithdrawalService 의 기본 구현을 그대로 쓰므로
+여러 회원을 병렬로 처리하려면 startProcess(WithdrawalProcessor) 를 쓴다. processor 가 이 데코레이터의 메서드를 부르므로
+모든 호출에 보호가 적용되고, 병렬도와 동시에 읽어 두는 회원 수(backpressure)는 processor 가 맡는다.
+ */
+public final class ResilientWithdrawalService implements WithdrawalService {
+
+    private final WithdrawalService delegate;
+    private final TokenBucket rateLimiter;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker circuitBreaker;
+
+    private ResilientWithdrawalService(Builder builder) {
+        this.delegate = builder.delegate;
+        this.rateLimiter = builder.rateLimiter;
+        this.retryPolicy = builder.retryPolicy;
+        this.circuitBreaker = builder.circuitBreaker;
+    }
+
+    public static Builder builder(WithdrawalService delegate) {
+        return new Builder(delegate);
+    }
+
+    public static class Builder {
+
+        private final WithdrawalService delegate;
+        private TokenBucket rateLimiter;
+        private RetryPolicy retryPolicy = RetryPolicy.none();
+        private CircuitBreaker circuitBreaker;
+
+        private Builder(WithdrawalService delegate) {
+            this.delegate = Objects.requireNonNull(delegate);
+        }
+
+        public Builder rateLimiter(TokenBucket rateLimiter) {
+            this.rateLimiter = Objects.requireNonNull(rateLimiter);
+            return this;
+        }
+
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = Objects.requireNonNull(retryPolicy);
+            return this;
+        }
+
+        public Builder circuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = Objects.requireNonNull(circuitBreaker);
+            return this;
+        }
+
+        public ResilientWithdrawalService build() {
+            return new ResilientWithdrawalService(this);
+        }
+    }
+
+    @Override
+    public String withdrawalMember(Member member) {
+        return call(1, () -> delegate.withdrawalMember(member));
+    }
+
+    @Override
+    public boolean supportsBulkWithdrawal() {
+        return delegate.supportsBulkWithdrawal();
+    }
+
+    @Override
+    public void withdrawalMembers(Collection<Member> members) {
+        call(members.size(), () -> {
+            delegate.withdrawalMembers(members);
+            return null;
+        });
+    }
+
+    @Override
+    public List<Member> getMembers() {
+        return delegate.getMembers();
+    }
+
+    @Override
+    public Stream<Member> streamMembers() {
+        return delegate.streamMembers();
+    }
+
+    @Override
+    public MemberSource memberSource() {
+        return delegate.memberSource();
+    }
+
+    private interface Call<R> {
+
+        R run();
+    }
+
+    private <R> R call(int permits, Call<R> call) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (rateLimiter != null) {
+                    rateLimiter.acquire(permits);
+                }
+                if (circuitBreaker != null) {
+                    circuitBreaker.acquirePermission();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("withdrawal interrupted");
+            } catch (CircuitBreaker.OpenException e) {
+                if (!retryPolicy.shouldRetry(attempt, e)) {
+                    throw e;
+                }
+                backOff(attempt);
+                continue;
+            }
+
+            // Error 등으로 끝나 결과를 기록하지 못했으면 finally 에서 허가를 돌려준다.
+            boolean recorded = false;
+            try {
+                R result = call.run();
+                if (circuitBreaker != null) {
+                    circuitBreaker.onSuccess();
+                }
+                recorded = true;
+                return result;
+            } catch (UnsupportedOperationException e) {
+                // 선택적 기능이 없다는 뜻이지 원격 서버의 실패가 아니다.
+                if (circuitBreaker != null) {
+                    circuitBreaker.onSuccess();
+                }
+                recorded = true;
+                throw e;
+            } catch (RuntimeException e) {
+                if (circuitBreaker != null) {
+                    circuitBreaker.onFailure();
+                }
+                recorded = true;
+                if (!retryPolicy.shouldRetry(attempt, e)) {
+                    throw e;
+                }
+                backOff(attempt);
+            } finally {
+                if (!recorded && circuitBreaker != null) {
+                    circuitBreaker.releasePermission();
+                }
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(retryPolicy.delayNanos(attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("withdrawal interrupted");
+        }
+    }
+}
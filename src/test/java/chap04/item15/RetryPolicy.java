@@ -0,0 +1,74 @@
+package chap04.item15;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/*
+실패한 호출을 몇 번, 얼마나 기다렸다가 다시 할지 정한다.
+
+n 번째 재시도 전에는 0 ~ min(maxDelay, baseDelay * 2^(n-1)) 사이의 임의의 시간만큼 기다린다. (exponential backoff + full jitter)
+여러 작업 스레드가 같은 순간에 실패해도 재시도 시각이 흩어져서 느려진 원격 서버에 한꺼번에 몰리지 않는다.
+
+retryOn 에 맞지 않는 예외는 바로 던진다. 기본값은 회로 차단기가 열려서 난 예외와 선택적 기능이 없다는 예외를 빼고 모두 재시도한다.
+ */
+public final class RetryPolicy {
+
+    private static final Predicate<RuntimeException> DEFAULT_RETRY_ON =
+        e -> !(e instanceof CircuitBreaker.OpenException) && !(e instanceof UnsupportedOperationException);
+
+    private final int maxAttempts;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+    private final Predicate<RuntimeException> retryOn;
+
+    private RetryPolicy(int maxAttempts, long baseDelayNanos, long maxDelayNanos,
+        Predicate<RuntimeException> retryOn) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayNanos = baseDelayNanos;
+        this.maxDelayNanos = maxDelayNanos;
+        this.retryOn = retryOn;
+    }
+
+    public static RetryPolicy none() {
+        return new RetryPolicy(1, 0, 0, DEFAULT_RETRY_ON);
+    }
+
+    public static RetryPolicy exponentialBackoff(int maxAttempts, Duration baseDelay, Duration maxDelay) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts: " + maxAttempts);
+        }
+        if (baseDelay.isNegative() || maxDelay.compareTo(baseDelay) < 0) {
+            throw new IllegalArgumentException("baseDelay: " + baseDelay + ", maxDelay: " + maxDelay);
+        }
+        return new RetryPolicy(maxAttempts, baseDelay.toNanos(), maxDelay.toNanos(), DEFAULT_RETRY_ON);
+    }
+
+    public RetryPolicy retryOn(Predicate<RuntimeException> retryOn) {
+        return new RetryPolicy(maxAttempts, baseDelayNanos, maxDelayNanos, Objects.requireNonNull(retryOn));
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /*
+    attempt 번째 시도가 e 로 실패했을 때 다시 시도할지 여부 (attempt 는 1 부터)
+     */
+    boolean shouldRetry(int attempt, RuntimeException e) {
+        return attempt < maxAttempts && retryOn.test(e);
+    }
+
+    /*
+    attempt 번째 시도가 실패한 뒤 기다릴 시간(나노초)
+     */
+    long delayNanos(int attempt) {
+        long ceiling = baseDelayNanos;
+        for (int i = 1; i < attempt && ceiling < maxDelayNanos; i++) {
+            ceiling <<= 1;
+        }
+        ceiling = Math.min(ceiling, maxDelayNanos);
+        return ceiling == 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
@@ -0,0 +1,79 @@
+package chap04.item15;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/*
+토큰 버킷 방식의 호출 속도 제한.
+
+초당 permitsPerSecond 개의 토큰이 채워지고, 최대 capacity 개까지 쌓인다. 호출마다 토큰을 하나씩 쓴다.
+쌓인 토큰만큼은 한꺼번에 호출할 수 있고(버스트), 그 뒤로는 채워지는 속도로만 호출된다.
+
+토큰 수는 호출할 때 지난 시간만큼 계산해서 채우므로 따로 채우는 스레드가 없다.
+ */
+public final class TokenBucket {
+
+    private final long capacity;
+    private final double permitsPerNano;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(long capacity, double permitsPerSecond) {
+        this(capacity, permitsPerSecond, System::nanoTime);
+    }
+
+    TokenBucket(long capacity, double permitsPerSecond, LongSupplier nanoClock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity: " + capacity);
+        }
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("permitsPerSecond: " + permitsPerSecond);
+        }
+        this.capacity = capacity;
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    public boolean tryAcquire() {
+        return tryAcquire(1) == 0;
+    }
+
+    /*
+    permits 개의 토큰을 쓸 수 있을 때까지 기다린다.
+     */
+    public void acquire(int permits) throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = tryAcquire(permits)) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /*
+    토큰을 썼으면 0, 모자라면 토큰이 다 찰 때까지 남은 시간(나노초).
+    capacity 보다 많이 요청하면 가득 찼을 때 한 번에 쓴다. (다음 요청들이 그만큼 늦어진다)
+     */
+    synchronized long tryAcquire(int permits) {
+        refill();
+        double required = Math.min(permits, capacity);
+        if (tokens >= required) {
+            tokens -= permits;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((required - tokens) / permitsPerNano));
+    }
+
+    public synchronized double availablePermits() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,62 @@
+package chap04.item15;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+작업마다 가상 스레드를 하나씩 만드는 ExecutorService 를 만든다.
+
+이 프로젝트는 자바 8 소스 레벨로 컴파일하므로 Executors.newVirtualThreadPerTaskExecutor() (자바 21) 를 직접 부를 수 없다.
+실행 중인 JVM 에 그 메서드가 있으면 MethodHandle 로 부르고, 없거나 (자바 8 ~ 18) preview 가 꺼져 있으면 (자바 19, 20)
+작업마다 데몬 플랫폼 스레드를 쓰는 풀을 돌려준다. 어느 쪽이든 동시 실행 수는 호출하는 쪽의 Semaphore 로 제한한다.
+ */
+final class VirtualThreads {
+
+    private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findFactory();
+
+    private VirtualThreads() {
+    }
+
+    private static MethodHandle findFactory() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    static boolean isAvailable() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    static ExecutorService newPerTaskExecutor() {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invokeExact();
+            } catch (UnsupportedOperationException e) {
+                // preview 기능이 꺼진 자바 19, 20
+            } catch (Throwable t) {
+                throw new IllegalStateException("cannot create virtual thread executor", t);
+            }
+        }
+        return Executors.newCachedThreadPool(new PlatformThreadFactory());
+    }
+
+    private static final class PlatformThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "withdrawal-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
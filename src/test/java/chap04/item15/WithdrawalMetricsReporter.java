@@ -0,0 +1,79 @@
+package chap04.item15;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+InstrumentedWithdrawalService 의 snapshot 을 주기적으로 한 줄씩 남긴다.
+
+try (WithdrawalMetricsReporter reporter = WithdrawalMetricsReporter.start(Duration.ofMinutes(1), service)) {
+    service.startProcess();
+}
+
+기본 출력은 java.util.logging 이고, 테스트에서는 Consumer<String> 으로 받아 확인할 수 있다.
+close() 하면 마지막으로 한 번 더 남기고 보고 스레드를 멈춘다.
+ */
+public final class WithdrawalMetricsReporter implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(WithdrawalMetricsReporter.class.getName());
+
+    private final List<InstrumentedWithdrawalService> services;
+    private final Consumer<String> sink;
+    private final ScheduledExecutorService scheduler;
+
+    private WithdrawalMetricsReporter(List<InstrumentedWithdrawalService> services, Consumer<String> sink) {
+        this.services = services;
+        this.sink = sink;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "withdrawal-metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static WithdrawalMetricsReporter start(Duration period, InstrumentedWithdrawalService... services) {
+        return start(period, LOGGER::info, services);
+    }
+
+    public static WithdrawalMetricsReporter start(Duration period, Consumer<String> sink,
+        InstrumentedWithdrawalService... services) {
+        if (period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("period: " + period);
+        }
+        WithdrawalMetricsReporter reporter = new WithdrawalMetricsReporter(
+            new ArrayList<>(Arrays.asList(services)), Objects.requireNonNull(sink));
+        long nanos = period.toNanos();
+        reporter.scheduler.scheduleAtFixedRate(reporter::reportSafely, nanos, nanos, TimeUnit.NANOSECONDS);
+        return reporter;
+    }
+
+    public void report() {
+        for (InstrumentedWithdrawalService service : services) {
+            sink.accept(service.snapshot().toString());
+        }
+    }
+
+    // 예외가 나면 scheduleAtFixedRate 가 이후 보고를 멈추므로 여기서 삼킨다.
+    private void reportSafely() {
+        try {
+            report();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "withdrawal metrics report failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        report();
+    }
+}
@@ -0,0 +1,503 @@
+package chap04.item15;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/*
+WithdrawalService 의 탈퇴 처리를 여러 스레드에서 배치 단위로 실행한다.
+
+WithdrawalProcessor processor = WithdrawalProcessor.builder()
+    .parallelism(8)
+    .batchSize(500)
+    .memberTimeout(Duration.ofSeconds(3))
+    .build();
+WithdrawalResult result = service.startProcess(processor);
+
+- service.streamMembers() 를 batchSize 씩 잘라 executor 에 넘긴다. 동시에 처리 중인 배치는 parallelism 의 두 배를 넘지 않는다.
+  그래서 스트림이 페이지 단위로 읽는 MemberCursor 라면 메모리에는 배치 몇 개 분량의 회원만 올라간다.
+- memberTimeout 이 있으면 감시 스레드가 시간을 넘긴 withdrawalMember 호출의 스레드를 interrupt 하고 timedOut 으로 센다.
+  interrupt 로 멈추는 것이므로 interrupt 에 응답하지 않는 호출은 멈추지 못한다. (블로킹 JDBC 호출, CPU 만 쓰는 계산 등)
+  그런 호출은 끝날 때까지 작업 스레드를 붙잡고 있다가 끝난 뒤에 timedOut 으로 세어진다.
+  JDBC 라면 Statement.setQueryTimeout 처럼 호출 자체의 제한 시간을 함께 걸어야 한다.
+- withdrawalMember 가 RuntimeException 을 던지면 failed 로 세고 다음 회원을 처리한다.
+- service 의 supportsBulkWithdrawal() 이 true 이면 배치를 한 번에 처리하고, 실패한 배치만 회원별로 다시 처리한다. (BulkWithdrawal)
+  이때 제한 시간은 memberTimeout 에 배치 크기를 곱한 값이고, 시간을 넘기면 배치 전체를 timedOut 으로 센다.
+- service 가 memberSource() 를 제공하면 MemberCursor 로 batchSize 씩 읽고, 앞선 배치가 모두 끝난 배치까지를
+  처리가 끝난 위치(MemberCheckpoint)로 기록한다. 위치가 앞으로 갈 때마다 onCheckpoint 로 알리고 WithdrawalResult 에도 담는다.
+  중간에 멈췄다면 마지막으로 받은 위치를 resumeFrom 에 넘겨 이어서 처리한다.
+- executor 를 넘기지 않으면 parallelism 크기의 스레드 풀을 만들고 처리가 끝나면 종료한다.
+  넘겨받은 executor 는 종료하지 않는다.
+
+원격 호출을 기다리느라 대부분의 시간을 보내는 구현체라면 virtualThreads(maxConcurrency) 로
+withdrawalMember 호출마다 가상 스레드를 하나씩 쓴다. 동시에 실행되는 호출은 Semaphore 로 maxConcurrency 개까지다.
+가상 스레드가 없는 JVM (자바 21 미만) 에서는 같은 방식으로 플랫폼 스레드를 쓴다. (VirtualThreads)
+process() 가 예외나 interrupt 로 끝나면 실행 중인 호출을 모두 interrupt 하고, 끝날 때까지 memberTimeout
+(없으면 SHUTDOWN_GRACE_PERIOD) 만큼 기다린 뒤에 돌아온다. 그래도 끝나지 않은 호출이 있으면 그 수를 담은
+IllegalStateException 을 던지거나, 이미 던지는 예외가 있으면 suppressed 로 붙인다.
+ */
+public final class WithdrawalProcessor {
+
+    private static final int RUNNING = 0;
+    private static final int DONE = 1;
+    private static final int TIMED_OUT = 2;
+    private static final int INTERRUPTED = 3;
+
+    private enum Outcome { SUCCEEDED, FAILED, TIMED_OUT }
+
+    // memberTimeout 이 없을 때 작업 스레드가 interrupt 에 응답하기를 기다리는 시간
+    static final Duration SHUTDOWN_GRACE_PERIOD = Duration.ofSeconds(10);
+
+    private final int parallelism;
+    private final int batchSize;
+    private final Duration memberTimeout;
+    private final ExecutorService executor;
+    private final int maxConcurrency;
+    private final MemberCheckpoint resumeFrom;
+    private final Consumer<MemberCheckpoint> checkpointListener;
+
+    private WithdrawalProcessor(Builder builder) {
+        this.parallelism = builder.parallelism;
+        this.batchSize = builder.batchSize;
+        this.memberTimeout = builder.memberTimeout;
+        this.executor = builder.executor;
+        this.maxConcurrency = builder.maxConcurrency;
+        this.resumeFrom = builder.resumeFrom;
+        this.checkpointListener = builder.checkpointListener;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int batchSize = 100;
+        private Duration memberTimeout;
+        private ExecutorService executor;
+        private int maxConcurrency;
+        private MemberCheckpoint resumeFrom = MemberCheckpoint.START;
+        private Consumer<MemberCheckpoint> checkpointListener = checkpoint -> {
+        };
+
+        private Builder() {
+        }
+
+        public Builder parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism: " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public Builder batchSize(int batchSize) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("batchSize: " + batchSize);
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Builder memberTimeout(Duration memberTimeout) {
+            if (memberTimeout.isNegative() || memberTimeout.isZero()) {
+                throw new IllegalArgumentException("memberTimeout: " + memberTimeout);
+            }
+            this.memberTimeout = memberTimeout;
+            return this;
+        }
+
+        public Builder executor(ExecutorService executor) {
+            this.executor = Objects.requireNonNull(executor);
+            return this;
+        }
+
+        public Builder virtualThreads(int maxConcurrency) {
+            if (maxConcurrency < 1) {
+                throw new IllegalArgumentException("maxConcurrency: " + maxConcurrency);
+            }
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /*
+        service.memberSource() 의 이 위치부터 읽는다. memberSource() 가 없는 service 에는 쓸 수 없다.
+         */
+        public Builder resumeFrom(MemberCheckpoint checkpoint) {
+            this.resumeFrom = Objects.requireNonNull(checkpoint);
+            return this;
+        }
+
+        /*
+        처리가 끝난 위치가 앞으로 갈 때마다 호출된다. 작업 스레드에서 락을 잡은 채 호출하므로 빨리 끝나야 한다.
+         */
+        public Builder onCheckpoint(Consumer<MemberCheckpoint> checkpointListener) {
+            this.checkpointListener = Objects.requireNonNull(checkpointListener);
+            return this;
+        }
+
+        public WithdrawalProcessor build() {
+            if (executor != null && maxConcurrency > 0) {
+                throw new IllegalStateException("executor and virtualThreads cannot be used together");
+            }
+            return new WithdrawalProcessor(this);
+        }
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /*
+    virtualThreads 로 설정했고 실행 중인 JVM 이 가상 스레드를 지원하는지 여부
+     */
+    public boolean isVirtualThreads() {
+        return maxConcurrency > 0 && VirtualThreads.isAvailable();
+    }
+
+    public WithdrawalResult process(WithdrawalService service) {
+        MemberSource source = service.memberSource();
+        if (source == null && !resumeFrom.equals(MemberCheckpoint.START)) {
+            throw new IllegalStateException("resumeFrom requires WithdrawalService.memberSource()");
+        }
+        long start = System.nanoTime();
+        boolean perMember = maxConcurrency > 0;
+        ExecutorService workers;
+        if (executor != null) {
+            workers = executor;
+        } else if (perMember) {
+            workers = VirtualThreads.newPerTaskExecutor();
+        } else {
+            workers = Executors.newFixedThreadPool(parallelism);
+        }
+        ScheduledExecutorService watchdog = memberTimeout != null ? newWatchdog() : null;
+        Progress progress = source != null ? new Progress(resumeFrom, checkpointListener) : null;
+        Run run = new Run(service, watchdog, perMember ? maxConcurrency : parallelism * 2, perMember, progress);
+        Throwable failure = null;
+        try {
+            if (source != null) {
+                submitBatches(MemberCursor.open(source, batchSize, resumeFrom), run, workers);
+            } else {
+                try (Stream<Member> stream = service.streamMembers()) {
+                    BulkWithdrawal.forEachBatch(stream.iterator(), batchSize, batch -> run.submit(workers, batch, null));
+                }
+            }
+            run.awaitCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            CancellationException cancelled = new CancellationException("withdrawal interrupted");
+            failure = cancelled;
+            throw cancelled;
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            boolean terminated = executor != null || shutdownAndAwait(workers, shutdownGracePeriod());
+            if (watchdog != null) {
+                watchdog.shutdownNow();
+            }
+            if (!terminated) {
+                IllegalStateException stuck = new IllegalStateException(
+                    run.running() + " withdrawal tasks still running after " + shutdownGracePeriod());
+                if (failure == null) {
+                    throw stuck;
+                }
+                failure.addSuppressed(stuck);
+            }
+        }
+        return run.result(Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /*
+    배치를 채운 직후의 cursor.checkpoint() 가 그 배치의 끝 위치다.
+     */
+    private void submitBatches(MemberCursor cursor, Run run, ExecutorService workers) {
+        List<Member> batch = new ArrayList<>(batchSize);
+        while (cursor.tryAdvance(batch::add)) {
+            if (batch.size() == batchSize) {
+                run.submit(workers, batch, cursor.checkpoint());
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            run.submit(workers, batch, cursor.checkpoint());
+        }
+    }
+
+    /*
+    회원(배치)마다 제한 시간 작업을 하나씩 예약하고, 제시간에 끝나면 취소한다.
+    취소한 작업을 바로 큐에서 빼지 않으면 memberTimeout 이 지날 때까지 남아서, 처리량 x memberTimeout 만큼 큐가 커진다.
+     */
+    static ScheduledThreadPoolExecutor newWatchdog() {
+        ScheduledThreadPoolExecutor watchdog = new ScheduledThreadPoolExecutor(1);
+        watchdog.setRemoveOnCancelPolicy(true);
+        return watchdog;
+    }
+
+    private Duration shutdownGracePeriod() {
+        return memberTimeout != null ? memberTimeout : SHUTDOWN_GRACE_PERIOD;
+    }
+
+    /*
+    남은 작업을 interrupt 하고, 모든 작업 스레드가 끝나길 최대 gracePeriod 만큼 기다린다. 모두 끝났으면 true.
+    interrupt 를 무시하는 호출 때문에 process() 가 영원히 돌아오지 않는 일은 없다.
+    기다리는 동안 받은 interrupt 는 기다리기를 멈추지 않고, 다 기다린 뒤에 다시 설정한다.
+     */
+    private static boolean shutdownAndAwait(ExecutorService workers, Duration gracePeriod) {
+        workers.shutdownNow();
+        long deadline = System.nanoTime() + gracePeriod.toNanos();
+        boolean interrupted = false;
+        boolean terminated = false;
+        long remaining;
+        while (!terminated && (remaining = deadline - System.nanoTime()) > 0) {
+            try {
+                terminated = workers.awaitTermination(remaining, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return terminated || workers.isTerminated();
+    }
+
+    /*
+    process() 한 번의 실행 상태. 카운터는 여러 작업 스레드가 함께 올리므로 LongAdder 를 쓴다.
+     */
+    private final class Run {
+
+        private final WithdrawalService service;
+        private final BulkWithdrawal bulk;
+        private final ScheduledExecutorService watchdog;
+        private final int maxInFlight;
+        private final Semaphore inFlight;
+        private final boolean perMember;
+        private final Progress progress;
+        private final AtomicReference<Throwable> unexpected = new AtomicReference<>();
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder timedOut = new LongAdder();
+
+        Run(WithdrawalService service, ScheduledExecutorService watchdog, int maxInFlight, boolean perMember,
+            Progress progress) {
+            this.service = service;
+            this.bulk = new BulkWithdrawal(service);
+            this.watchdog = watchdog;
+            this.maxInFlight = maxInFlight;
+            this.inFlight = new Semaphore(maxInFlight);
+            this.perMember = perMember;
+            this.progress = progress;
+        }
+
+        /*
+        배치 하나를 작업 하나로 넘긴다. 회원마다 스레드를 쓰는 모드에서 bulk 를 쓸 수 없으면 회원마다 작업 하나씩 넘긴다.
+        end 는 배치의 끝 위치이고, 위치를 기록하지 않으면 null 이다.
+         */
+        void submit(ExecutorService workers, List<Member> batch, MemberCheckpoint end) {
+            Runnable batchDone = progress != null ? progress.begin(end) : () -> {
+            };
+            if (perMember && !bulk.isSupported()) {
+                AtomicInteger remaining = new AtomicInteger(batch.size());
+                Runnable memberDone = () -> {
+                    if (remaining.decrementAndGet() == 0) {
+                        batchDone.run();
+                    }
+                };
+                for (Member member : batch) {
+                    execute(workers, () -> withdrawal(member), memberDone);
+                }
+            } else {
+                execute(workers, () -> withdrawal(batch), batchDone);
+            }
+        }
+
+        /*
+        done 은 task 가 예외 없이 끝났을 때만 실행한다. 예상하지 못한 예외로 끝난 배치는 처리가 끝난 것으로 보지 않는다.
+         */
+        private void execute(ExecutorService workers, Runnable task, Runnable done) {
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("withdrawal interrupted");
+            }
+            try {
+                workers.execute(() -> {
+                    try {
+                        task.run();
+                        done.run();
+                    } catch (Throwable t) {
+                        unexpected.compareAndSet(null, t);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+        }
+
+        /*
+        아직 끝나지 않은 작업 수
+         */
+        int running() {
+            return maxInFlight - inFlight.availablePermits();
+        }
+
+        void awaitCompletion() throws InterruptedException {
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+            Throwable t = unexpected.get();
+            if (t != null) {
+                throw new IllegalStateException("withdrawal task failed", t);
+            }
+        }
+
+        private void withdrawal(List<Member> batch) {
+            if (bulk.isSupported()) {
+                Outcome outcome = call(() -> bulk.tryWithdrawal(batch), batch.size());
+                if (outcome == Outcome.SUCCEEDED) {
+                    succeeded.add(batch.size());
+                    return;
+                }
+                if (outcome == Outcome.TIMED_OUT) {
+                    timedOut.add(batch.size());
+                    return;
+                }
+            }
+            batch.forEach(this::withdrawal);
+        }
+
+        private void withdrawal(Member member) {
+            Outcome outcome = call(() -> {
+                service.withdrawalMember(member);
+                return true;
+            }, 1);
+            if (outcome == Outcome.SUCCEEDED) {
+                succeeded.increment();
+            } else if (outcome == Outcome.FAILED) {
+                failed.increment();
+            } else {
+                timedOut.increment();
+            }
+        }
+
+        /*
+        memberTimeout * members 안에 끝나지 않으면 감시 스레드가 작업 스레드를 interrupt 한다.
+         */
+        private Outcome call(BooleanSupplier action, int members) {
+            if (watchdog == null) {
+                try {
+                    return action.getAsBoolean() ? Outcome.SUCCEEDED : Outcome.FAILED;
+                } catch (RuntimeException e) {
+                    return Outcome.FAILED;
+                }
+            }
+
+            AtomicInteger state = new AtomicInteger(RUNNING);
+            Thread worker = Thread.currentThread();
+            long timeoutNanos = memberTimeout.toNanos();
+            timeoutNanos = timeoutNanos > Long.MAX_VALUE / members ? Long.MAX_VALUE : timeoutNanos * members;
+            ScheduledFuture<?> timeout = watchdog.schedule(() -> {
+                if (state.compareAndSet(RUNNING, TIMED_OUT)) {
+                    worker.interrupt();
+                    state.set(INTERRUPTED);
+                }
+            }, timeoutNanos, TimeUnit.NANOSECONDS);
+
+            boolean completed = false;
+            try {
+                completed = action.getAsBoolean();
+            } catch (RuntimeException e) {
+                // 실패로 센다. 시간 초과와 겹치면 아래에서 시간 초과로 센다.
+            } finally {
+                timeout.cancel(false);
+            }
+
+            if (!state.compareAndSet(RUNNING, DONE)) {
+                // 감시 스레드가 보낸 interrupt 가 다음 회원에게 남지 않도록, interrupt 가 끝나길 기다렸다가 지운다.
+                while (state.get() != INTERRUPTED) {
+                    Thread.yield();
+                }
+                Thread.interrupted();
+                return Outcome.TIMED_OUT;
+            }
+            return completed ? Outcome.SUCCEEDED : Outcome.FAILED;
+        }
+
+        WithdrawalResult result(Duration elapsed) {
+            return new WithdrawalResult(succeeded.sum(), failed.sum(), timedOut.sum(), elapsed,
+                progress != null ? progress.checkpoint() : null);
+        }
+    }
+
+    /*
+    처리가 끝난 위치를 기록한다. 배치는 끝나는 순서가 제각각이므로, 앞선 배치가 모두 끝난 배치까지만 위치를 옮긴다.
+    기억하는 배치는 처리 중인 배치뿐이라 동시에 처리하는 배치 수만큼만 메모리를 쓴다.
+     */
+    private static final class Progress {
+
+        private final Consumer<MemberCheckpoint> listener;
+        private final Map<Long, MemberCheckpoint> ends = new HashMap<>();
+        private final Set<Long> completed = new HashSet<>();
+        private long submitted;
+        private long next;
+        private MemberCheckpoint checkpoint;
+
+        Progress(MemberCheckpoint start, Consumer<MemberCheckpoint> listener) {
+            this.checkpoint = start;
+            this.listener = listener;
+        }
+
+        /*
+        배치 번호를 매기고, 배치가 끝났을 때 실행할 작업을 돌려준다.
+         */
+        synchronized Runnable begin(MemberCheckpoint end) {
+            long batch = submitted++;
+            ends.put(batch, end);
+            return () -> complete(batch);
+        }
+
+        private synchronized void complete(long batch) {
+            completed.add(batch);
+            if (!completed.remove(next)) {
+                return;
+            }
+            do {
+                checkpoint = ends.remove(next);
+                next++;
+            } while (completed.remove(next));
+            listener.accept(checkpoint);
+        }
+
+        synchronized MemberCheckpoint checkpoint() {
+            return checkpoint;
+        }
+    }
+}
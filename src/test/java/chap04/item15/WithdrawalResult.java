@@ -0,0 +1,69 @@
+package chap04.item15;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/*
+WithdrawalProcessor 로 탈퇴 처리를 한 결과.
+"FINISHED" 문자열 대신 몇 명이 성공했고, 실패했고, 시간 초과로 중단됐는지와 걸린 시간을 알려준다.
+service 가 memberSource() 를 제공했다면 처리가 끝난 위치(checkpoint)도 함께 알려준다.
+ */
+public final class WithdrawalResult {
+
+    private final long succeeded;
+    private final long failed;
+    private final long timedOut;
+    private final Duration elapsed;
+    private final MemberCheckpoint checkpoint;
+
+    public WithdrawalResult(long succeeded, long failed, long timedOut, Duration elapsed) {
+        this(succeeded, failed, timedOut, elapsed, null);
+    }
+
+    public WithdrawalResult(long succeeded, long failed, long timedOut, Duration elapsed,
+        MemberCheckpoint checkpoint) {
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.timedOut = timedOut;
+        this.elapsed = Objects.requireNonNull(elapsed);
+        this.checkpoint = checkpoint;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getTimedOut() {
+        return timedOut;
+    }
+
+    public long getTotal() {
+        return succeeded + failed + timedOut;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /*
+    이 위치 앞의 회원은 모두 처리(성공, 실패, 시간 초과)가 끝났다. 위치를 기록하지 않았으면 비어 있다.
+     */
+    public Optional<MemberCheckpoint> getCheckpoint() {
+        return Optional.ofNullable(checkpoint);
+    }
+
+    public boolean isAllSucceeded() {
+        return failed == 0 && timedOut == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "WithdrawalResult{succeeded=" + succeeded + ", failed=" + failed + ", timedOut=" + timedOut
+            + ", elapsed=" + elapsed + ", checkpoint=" + checkpoint + '}';
+    }
+}
@@ -1,14 +1,65 @@
 package chap04.item15;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface WithdrawalService {
     String withdrawalMember(Member member);
+
+    /*
+    withdrawalMembers 를 재정의해 여러 회원을 한 번에 탈퇴시킬 수 있으면 true 를 돌려준다.
+    startProcess 와 WithdrawalProcessor 는 true 일 때만 withdrawalMembers 를 부르고, 아니면 withdrawalMember 로 한 명씩 처리한다.
+     */
+    default boolean supportsBulkWithdrawal() {
+        return false;
+    }
+
+    /*
+    여러 회원을 한 번에 탈퇴시킨다. (예: INSERT ~ SELECT 쿼리 한 번)
+    선택적 기능이라 기본 구현은 UnsupportedOperationException 을 던진다. 재정의했다면 supportsBulkWithdrawal 도 true 로 재정의한다.
+    members 전체가 반영되거나 전혀 반영되지 않아야 한다. 예외를 던지면 그 배치를 회원별로 다시 처리한다.
+     */
+    default void withdrawalMembers(Collection<Member> members) {
+        throw new UnsupportedOperationException();
+    }
+
     List<Member> getMembers();
+
+    /*
+    탈퇴 대상 회원을 차례로 내주는 스트림. WithdrawalProcessor 는 이 스트림을 배치 단위로 조금씩 소비한다.
+    대상이 많으면 getMembers() 대신 MemberCursor.stream(source, pageSize) 를 돌려주도록 재정의해서
+    전체 목록을 메모리에 올리지 않는다.
+     */
+    default Stream<Member> streamMembers() {
+        return getMembers().stream();
+    }
+
+    /*
+    탈퇴 대상을 페이지 단위로 다시 읽을 수 있는 저장소. 재정의하면 WithdrawalProcessor 가 streamMembers() 대신
+    MemberCursor 로 읽으면서 처리가 끝난 위치(MemberCheckpoint)를 기록하고, 그 위치부터 다시 시작할 수 있다.
+    기본 구현은 null 이고, 이때는 위치를 기록하지 않는다.
+     */
+    default MemberSource memberSource() {
+        return null;
+    }
+
     default String startProcess() {
         List<Member> members = getMembers();
-        members.forEach(this::withdrawalMember);
+        BulkWithdrawal bulk = new BulkWithdrawal(this);
+        BulkWithdrawal.forEachBatch(members.iterator(), BulkWithdrawal.DEFAULT_BATCH_SIZE, batch -> {
+            if (!bulk.tryWithdrawal(batch)) {
+                batch.forEach(this::withdrawalMember);
+            }
+        });
 
         return "FINISHED";
     }
+
+    /*
+    processor 의 설정(병렬도, 배치 크기, 회원별 제한 시간)대로 탈퇴를 처리하고 집계 결과를 돌려준다.
+     */
+    default WithdrawalResult startProcess(WithdrawalProcessor processor) {
+        return processor.process(this);
+    }
 }
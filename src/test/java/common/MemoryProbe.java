@@ -0,0 +1,145 @@
+package common;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/*
+테스트에서 메모리 누수와 할당량을 확인하기 위한 도구.
+
+Runtime.totalMemory() 는 JVM 이 확보한 힙의 크기일 뿐, 객체가 살아있는지와는 관계가 없다.
+여기서는 세 가지 방법으로 측정한다.
+
+1. Tracker : 추적할 객체를 WeakReference 로 등록해 두고, GC 를 충분히 돌린 뒤 아직 수거되지 않은 객체 수를 센다.
+   가장 정확한 방법이므로 누수 여부는 이 방법으로 검증한다.
+2. retainedBytes : GC 를 안정시킨 뒤 블록 실행 전후의 사용 중인 힙 크기 차이를 잰다.
+   다른 스레드의 할당에도 영향을 받으므로 넉넉한 오차 범위를 두고 비교해야 한다.
+3. allocatedBytesPerOperation : HotSpot 의 스레드별 할당 카운터(com.sun.management.ThreadMXBean)로
+   현재 스레드가 연산 한 번에 할당한 바이트 수를 잰다. GC 와 무관하게 정확하다.
+ */
+public final class MemoryProbe {
+
+    private static final int MAX_GC_ATTEMPTS = 20;
+
+    // 측정하는 동안 결과 객체가 수거되지 않도록 붙잡아 둔다.
+    private static volatile Object sink;
+
+    private MemoryProbe() {
+    }
+
+    /*
+    System.gc() 는 힌트일 뿐이므로, 방금 만든 객체의 WeakReference 가 지워지고
+    사용 중인 힙 크기가 더 이상 줄지 않을 때까지 반복한다.
+     */
+    public static void forceGc() {
+        WeakReference<Object> sentinel = new WeakReference<>(new Object());
+        long previousUsed = Long.MAX_VALUE;
+        for (int i = 0; i < MAX_GC_ATTEMPTS; i++) {
+            System.gc();
+            System.runFinalization();
+            long used = usedHeap();
+            if (sentinel.get() == null && used >= previousUsed) {
+                return;
+            }
+            previousUsed = used;
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /*
+    block 이 반환한 객체를 통해 도달 가능한 메모리의 대략적인 크기.
+     */
+    public static long retainedBytes(Supplier<?> block) {
+        forceGc();
+        long before = usedHeap();
+        sink = block.get();
+        try {
+            forceGc();
+            return usedHeap() - before;
+        } finally {
+            sink = null;
+        }
+    }
+
+    public static boolean isAllocationMeasurementSupported() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return bean instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported();
+    }
+
+    /*
+    operation 을 operations 번 실행하는 동안 현재 스레드가 할당한 바이트 수를 연산 횟수로 나눈 값.
+    처음 실행할 때 생기는 클래스 로딩 등의 할당을 빼기 위해 한 번 미리 실행한 뒤에 잰다.
+     */
+    public static double allocatedBytesPerOperation(int operations, IntConsumer operation) {
+        if (!isAllocationMeasurementSupported()) {
+            throw new UnsupportedOperationException("thread allocation counter is not supported");
+        }
+        com.sun.management.ThreadMXBean bean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        bean.setThreadAllocatedMemoryEnabled(true);
+
+        for (int i = 0; i < operations; i++) {
+            operation.accept(i);
+        }
+        long before = bean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < operations; i++) {
+            operation.accept(i);
+        }
+        long after = bean.getThreadAllocatedBytes(threadId);
+        return (after - before) / (double) operations;
+    }
+
+    public static Tracker tracker() {
+        return new Tracker();
+    }
+
+    public static final class Tracker {
+
+        private final List<WeakReference<Object>> references = new ArrayList<>();
+
+        private Tracker() {
+        }
+
+        /*
+        객체를 추적 대상으로 등록하고 그대로 반환한다. Tracker 는 객체를 약하게만 참조한다.
+         */
+        public <T> T track(T object) {
+            references.add(new WeakReference<>(object));
+            return object;
+        }
+
+        public int trackedCount() {
+            return references.size();
+        }
+
+        /*
+        GC 를 안정시킨 뒤, 추적 중인 객체 중 아직 도달 가능한(수거되지 않은) 객체의 수.
+         */
+        public int liveCount() {
+            forceGc();
+            int live = 0;
+            for (WeakReference<Object> reference : references) {
+                if (reference.get() != null) {
+                    live++;
+                }
+            }
+            return live;
+        }
+    }
+}